@@ -0,0 +1,664 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * @brief A list stored as a B-tree ordered by position instead of by key.
+ * Leaves hold up to leaf_capacity elements in an array, and every branch keeps
+ * the element count of each child, so get, set, add(index) and remove(index)
+ * find their position by subtracting counts on the way down in O(log n).
+ * Inserting into a full node splits it, and a node is merged with a neighbour
+ * whenever the two fit in one node, which keeps nodes at least half full on
+ * average and the tree balanced.
+ *
+ * Appends go to a separate tail array that is pushed into the tree as a whole
+ * leaf once it is full, so add(T) is O(1) amortized.
+ */
+public class BTreeList<T> implements MyList<T> {
+    private static final int leaf_capacity = 64;
+    private static final int branch_capacity = 32;
+
+    /**
+     * @brief A tree node. size is the number of elements below the node.
+     */
+    private abstract static class Node {
+        int size;
+    }
+
+    /**
+     * @brief A leaf holding elements items[0] to items[size - 1].
+     */
+    private static final class Leaf extends Node {
+        Object[] items;
+
+        Leaf(Object[] items, int size) {
+            this.items = items;
+            this.size = size;
+        }
+    }
+
+    /**
+     * @brief An inner node holding children[0] to children[childCount - 1] with their sizes.
+     */
+    private static final class Branch extends Node {
+        final Node[] children = new Node[branch_capacity];
+        final int[] sizes = new int[branch_capacity]; // sizes[i] == children[i].size, kept together for fast descents
+        int childCount;
+    }
+
+    private Node root; // null while every element is in the tail
+    private Object[] tail = new Object[leaf_capacity];
+    private int tailCount;
+
+    /**
+     * @brief Constructs an empty list.
+     */
+    public BTreeList() {
+        root = null;
+        tailCount = 0;
+    }
+
+    /**
+     * @brief Returns the number of elements stored in the tree, not counting the tail.
+     * @return The tree size.
+     */
+    private int treeSize() {
+        return root == null ? 0 : root.size;
+    }
+
+    /**
+     * @brief Throws if the index is not in the list.
+     * @param index The index to check.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**
+     * @brief Finds the leaf holding a tree index.
+     * The position inside the leaf is left in foundOffset.
+     * @param index An index smaller than treeSize().
+     * @return The leaf holding the index.
+     */
+    private Leaf findLeaf(int index) {
+        Node node = root;
+        while (node instanceof Branch) {
+            Branch branch = (Branch) node;
+            int child = 0;
+            while (index >= branch.sizes[child]) {
+                index -= branch.sizes[child];
+                child++;
+            }
+            node = branch.children[child];
+        }
+        foundOffset = index;
+        return (Leaf) node;
+    }
+
+    private int foundOffset; // Position inside the leaf returned by the last findLeaf call
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return treeSize() + tailCount;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list in O(1) amortized time.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        if (tailCount == leaf_capacity) {
+            pushTail();
+        }
+        tail[tailCount++] = item;
+    }
+
+    /**
+     * @brief Moves the full tail array into the tree as its new rightmost leaf.
+     */
+    private void pushTail() {
+        Leaf leaf = new Leaf(tail, tailCount);
+        tail = new Object[leaf_capacity];
+        tailCount = 0;
+        if (root == null) {
+            root = leaf;
+            return;
+        }
+        Node split = appendLeaf(root, leaf);
+        if (split != null) {
+            growRoot(split);
+        }
+    }
+
+    /**
+     * @brief Adds a leaf after the rightmost leaf below a node.
+     * @param node The node to append below.
+     * @param leaf The leaf to append.
+     * @return A new right sibling of node if node had no room, otherwise null.
+     */
+    private Node appendLeaf(Node node, Leaf leaf) {
+        if (node instanceof Leaf) {
+            return leaf; // The caller links it as the next sibling
+        }
+        Branch branch = (Branch) node;
+        int last = branch.childCount - 1;
+        Node split = appendLeaf(branch.children[last], leaf);
+        branch.sizes[last] = branch.children[last].size;
+        branch.size += leaf.size;
+        if (split == null) {
+            return null;
+        }
+        branch.size -= split.size; // Counted again by whoever links split
+        if (branch.childCount < branch_capacity) {
+            insertChild(branch, branch.childCount, split);
+            return null;
+        }
+        Branch sibling = new Branch();
+        insertChild(sibling, 0, split);
+        return sibling;
+    }
+
+    /**
+     * @brief Replaces the root by a branch holding the old root and its new right sibling.
+     * @param split The new sibling of the root.
+     */
+    private void growRoot(Node split) {
+        Branch branch = new Branch();
+        insertChild(branch, 0, root);
+        insertChild(branch, 1, split);
+        root = branch;
+    }
+
+    /**
+     * @brief Inserts a child into a branch that has room and adds its size.
+     * @param branch The branch to insert into.
+     * @param position The child position to insert at.
+     * @param child The child to insert.
+     */
+    private static void insertChild(Branch branch, int position, Node child) {
+        int moved = branch.childCount - position;
+        System.arraycopy(branch.children, position, branch.children, position + 1, moved);
+        System.arraycopy(branch.sizes, position, branch.sizes, position + 1, moved);
+        branch.children[position] = child;
+        branch.sizes[position] = child.size;
+        branch.childCount++;
+        branch.size += child.size;
+    }
+
+    /**
+     * @brief Removes a child from a branch and subtracts its size.
+     * @param branch The branch to remove from.
+     * @param position The child position to remove.
+     */
+    private static void removeChild(Branch branch, int position) {
+        branch.size -= branch.sizes[position];
+        int moved = branch.childCount - position - 1;
+        System.arraycopy(branch.children, position + 1, branch.children, position, moved);
+        System.arraycopy(branch.sizes, position + 1, branch.sizes, position, moved);
+        branch.childCount--;
+        branch.children[branch.childCount] = null;
+        branch.sizes[branch.childCount] = 0;
+    }
+
+    /**
+     * @brief Sets the value of the item at a specific index.
+     * @param index The index to set the item at.
+     * @param item The new item.
+     */
+    public void set(int index, T item) {
+        checkIndex(index);
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            tail[index - treeSize] = item;
+        } else {
+            findLeaf(index).items[foundOffset] = item;
+        }
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     */
+    public T get(int index) {
+        checkIndex(index);
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            return (T) tail[index - treeSize];
+        }
+        return (T) findLeaf(index).items[foundOffset];
+    }
+
+    /**
+     * @brief Gets the first item in the list.
+     * @return The first item.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(0);
+    }
+
+    /**
+     * @brief Gets the last item in the list.
+     * @return The last item.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(size() - 1);
+    }
+
+    /**
+     * @brief Inserts an item at a specified index in O(log n).
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     */
+    public void add(int index, T item) {
+        if (index < 0 || index > size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            if (tailCount == leaf_capacity) {
+                pushTail();
+                add(index, item); // The index may now fall inside the tree
+                return;
+            }
+            int position = index - treeSize;
+            System.arraycopy(tail, position, tail, position + 1, tailCount - position);
+            tail[position] = item;
+            tailCount++;
+            return;
+        }
+        Node split = insert(root, index, item);
+        if (split != null) {
+            growRoot(split);
+        }
+    }
+
+    /**
+     * @brief Inserts an item below a node, splitting the node if it is full.
+     * @param node The node to insert below.
+     * @param index The index relative to the node.
+     * @param item The item to insert.
+     * @return A new right sibling of node if it was split, otherwise null.
+     */
+    private Node insert(Node node, int index, Object item) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            if (leaf.size < leaf_capacity) {
+                System.arraycopy(leaf.items, index, leaf.items, index + 1, leaf.size - index);
+                leaf.items[index] = item;
+                leaf.size++;
+                return null;
+            }
+            int half = leaf_capacity / 2;
+            Object[] upper = new Object[leaf_capacity];
+            System.arraycopy(leaf.items, half, upper, 0, leaf_capacity - half);
+            Arrays.fill(leaf.items, half, leaf_capacity, null);
+            Leaf sibling = new Leaf(upper, leaf_capacity - half);
+            leaf.size = half;
+            insert(index <= half ? leaf : sibling, index <= half ? index : index - half, item);
+            return sibling;
+        }
+
+        Branch branch = (Branch) node;
+        int child = 0;
+        while (child < branch.childCount - 1 && index > branch.sizes[child]) {
+            index -= branch.sizes[child];
+            child++;
+        }
+        Node split = insert(branch.children[child], index, item);
+        branch.sizes[child] = branch.children[child].size;
+        branch.size++;
+        if (split == null) {
+            return null;
+        }
+        branch.size -= split.size; // insertChild adds it back
+        if (branch.childCount < branch_capacity) {
+            insertChild(branch, child + 1, split);
+            return null;
+        }
+        // Move the upper half of the children into a new branch, then link split into the right half
+        Branch sibling = new Branch();
+        int half = branch_capacity / 2;
+        for (int i = half; i < branch_capacity; i++) {
+            insertChild(sibling, i - half, branch.children[i]);
+        }
+        while (branch.childCount > half) {
+            removeChild(branch, branch.childCount - 1);
+        }
+        if (child + 1 <= half) {
+            insertChild(branch, child + 1, split);
+        } else {
+            insertChild(sibling, child + 1 - half, split);
+        }
+        return sibling;
+    }
+
+    /**
+     * @brief Removes an item from a specific index in O(log n).
+     * @param index The index to remove the item from.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            int position = index - treeSize;
+            System.arraycopy(tail, position + 1, tail, position, tailCount - position - 1);
+            tail[--tailCount] = null;
+            return;
+        }
+        delete(root, index);
+        if (root.size == 0) {
+            root = null;
+        } else if (root instanceof Branch && ((Branch) root).childCount == 1) {
+            root = ((Branch) root).children[0]; // Shrink the tree by one level
+        }
+    }
+
+    /**
+     * @brief Removes an item below a node, merging children that became small enough to share a node.
+     * @param node The node to remove below.
+     * @param index The index relative to the node.
+     */
+    private void delete(Node node, int index) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            System.arraycopy(leaf.items, index + 1, leaf.items, index, leaf.size - index - 1);
+            leaf.items[--leaf.size] = null;
+            return;
+        }
+        Branch branch = (Branch) node;
+        int child = 0;
+        while (index >= branch.sizes[child]) {
+            index -= branch.sizes[child];
+            child++;
+        }
+        delete(branch.children[child], index);
+        branch.sizes[child]--;
+        branch.size--;
+        if (branch.sizes[child] == 0) {
+            removeChild(branch, child);
+            return;
+        }
+        if (child + 1 < branch.childCount && tryMerge(branch, child)) {
+            return;
+        }
+        if (child > 0) {
+            tryMerge(branch, child - 1);
+        }
+    }
+
+    /**
+     * @brief Merges a child with its right neighbour if both fit in one node.
+     * @param branch The parent of the two children.
+     * @param left The position of the left child.
+     * @return true if the children were merged.
+     */
+    private static boolean tryMerge(Branch branch, int left) {
+        Node first = branch.children[left];
+        Node second = branch.children[left + 1];
+        if (first instanceof Leaf) {
+            Leaf a = (Leaf) first;
+            Leaf b = (Leaf) second;
+            if (a.size + b.size > leaf_capacity) {
+                return false;
+            }
+            System.arraycopy(b.items, 0, a.items, a.size, b.size);
+            a.size += b.size;
+        } else {
+            Branch a = (Branch) first;
+            Branch b = (Branch) second;
+            if (a.childCount + b.childCount > branch_capacity) {
+                return false;
+            }
+            for (int i = 0; i < b.childCount; i++) {
+                insertChild(a, a.childCount, b.children[i]);
+            }
+        }
+        branch.sizes[left] = first.size; // branch.size is unchanged, the elements only moved
+        int moved = branch.childCount - left - 2;
+        System.arraycopy(branch.children, left + 2, branch.children, left + 1, moved);
+        System.arraycopy(branch.sizes, left + 2, branch.sizes, left + 1, moved);
+        branch.childCount--;
+        branch.children[branch.childCount] = null;
+        branch.sizes[branch.childCount] = 0;
+        return true;
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     */
+    public void removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(size() - 1);
+    }
+
+    /**
+     * @brief Sorts the list in natural order and rebuilds it with bulk appends.
+     */
+    public void sort() {
+        Object[] array = toArray();
+        Arrays.sort(array);
+        clear();
+        for (Object item : array) {
+            add((T) item);
+        }
+    }
+
+    /**
+     * @brief Finds the first position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        int index = 0;
+        for (T item : this) {
+            if (object.equals(item)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        for (int i = tailCount - 1; i >= 0; i--) {
+            if (object.equals(tail[i])) {
+                return treeSize() + i;
+            }
+        }
+        return root == null ? -1 : lastIndexIn(root, object, 0);
+    }
+
+    /**
+     * @brief Finds the last position of an object below a node, scanning its leaves from right to left.
+     * @param node The node to search.
+     * @param object The object to search for.
+     * @param offset The list index of the node's first element.
+     * @return The index of the object, or -1 if it is not below the node.
+     */
+    private static int lastIndexIn(Node node, Object object, int offset) {
+        if (node instanceof Leaf) {
+            Object[] items = ((Leaf) node).items;
+            for (int i = node.size - 1; i >= 0; i--) {
+                if (object.equals(items[i])) {
+                    return offset + i;
+                }
+            }
+            return -1;
+        }
+        Branch branch = (Branch) node;
+        int end = offset + node.size;
+        for (int i = branch.childCount - 1; i >= 0; i--) {
+            end -= branch.sizes[i];
+            int found = lastIndexIn(branch.children[i], object, end);
+            if (found != -1) {
+                return found;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the list.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Converts the list to an array, copying whole leaves.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size()];
+        int copied = root == null ? 0 : copyLeaves(root, array, 0);
+        System.arraycopy(tail, 0, array, copied, tailCount);
+        return array;
+    }
+
+    /**
+     * @brief Copies the leaves below a node into an array in order.
+     * @param node The node to copy.
+     * @param array The array to copy into.
+     * @param offset The array position of the node's first element.
+     * @return The array position after the node's last element.
+     */
+    private static int copyLeaves(Node node, Object[] array, int offset) {
+        if (node instanceof Leaf) {
+            System.arraycopy(((Leaf) node).items, 0, array, offset, node.size);
+            return offset + node.size;
+        }
+        Branch branch = (Branch) node;
+        for (int i = 0; i < branch.childCount; i++) {
+            offset = copyLeaves(branch.children[i], array, offset);
+        }
+        return offset;
+    }
+
+    /**
+     * @brief Clears all elements from the list.
+     */
+    public void clear() {
+        root = null;
+        tail = new Object[leaf_capacity];
+        tailCount = 0;
+    }
+
+    /**
+     * @brief Returns an iterator that walks the leaves in order with a stack of branch positions.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private final Branch[] path = new Branch[32];
+            private final int[] childAt = new int[32];
+            private int depth = 0;
+            private Object[] items;
+            private int count;
+            private int position;
+            private boolean inTail;
+
+            {
+                if (root == null) {
+                    enterTail();
+                } else {
+                    descend(root);
+                }
+            }
+
+            /**
+             * @brief Pushes the leftmost path below a node and starts at its first leaf.
+             */
+            private void descend(Node node) {
+                while (node instanceof Branch) {
+                    path[depth] = (Branch) node;
+                    childAt[depth] = 0;
+                    depth++;
+                    node = ((Branch) node).children[0];
+                }
+                items = ((Leaf) node).items;
+                count = node.size;
+                position = 0;
+            }
+
+            /**
+             * @brief Switches to the tail array once every leaf has been visited.
+             */
+            private void enterTail() {
+                inTail = true;
+                items = tail;
+                count = tailCount;
+                position = 0;
+            }
+
+            /**
+             * @brief Moves to the next leaf, or to the tail after the last one.
+             */
+            private void nextLeaf() {
+                while (depth > 0) {
+                    Branch branch = path[depth - 1];
+                    if (++childAt[depth - 1] < branch.childCount) {
+                        descend(branch.children[childAt[depth - 1]]);
+                        return;
+                    }
+                    depth--;
+                }
+                enterTail();
+            }
+
+            public boolean hasNext() {
+                while (position == count && !inTail) {
+                    nextLeaf();
+                }
+                return position < count;
+            }
+
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return (T) items[position++];
+            }
+        };
+    }
+}
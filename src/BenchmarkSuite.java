@@ -0,0 +1,245 @@
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.function.IntConsumer;
+
+
+/**
+ * @brief Reproducible baseline for every collection in this project against its java.util equivalent.
+ * Each operation is measured at sizes from 10 to 10M elements. A run warms up
+ * for a fixed time and then measures for a fixed time, so O(n) operations on
+ * large lists finish as quickly as O(1) ones. Bytes per operation come from the
+ * per-thread allocation counter, the same figure JMH reports as gc.alloc.rate.norm
+ * with -prof gc.
+ *
+ * Run with "java -Xmx6g BenchmarkSuite [maxSize]". The optional argument caps the
+ * largest size, for example 100000 for a quick run.
+ */
+public class BenchmarkSuite {
+    private static final int[] sizes = {10, 1_000, 100_000, 10_000_000};
+    private static final long warmup_nanos = 200_000_000L;
+    private static final long measure_nanos = 500_000_000L;
+    private static final int pool_size = 4096; // Must be a power of two
+    private static final Integer missing = -1; // Never stored, so indexOf scans the whole list
+
+    private static final Integer[] pool = new Integer[pool_size]; // Pre-boxed values so the operations themselves do not box
+    private static final int[] randomIndex = new int[pool_size];
+
+    static {
+        Random random = new Random(42);
+        for (int i = 0; i < pool_size; i++) {
+            pool[i] = random.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    /**
+     * @brief The entry point that runs every benchmark.
+     * @param args An optional largest size to measure.
+     */
+    public static void main(String[] args) {
+        int maxSize = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        System.out.printf("%-34s %10s %14s %12s%n", "benchmark", "size", "ns/op", "bytes/op");
+        for (int size : sizes) {
+            if (size > maxSize) {
+                break;
+            }
+            Random random = new Random(size);
+            for (int i = 0; i < pool_size; i++) {
+                randomIndex[i] = random.nextInt(size);
+            }
+            arrayLists(size);
+            linkedLists(size);
+            queues(size);
+            stacks(size);
+            heaps(size);
+        }
+    }
+
+    /**
+     * @brief Benchmarks MyArrayList against java.util.ArrayList.
+     * @param size The number of elements in the list.
+     */
+    private static void arrayLists(int size) {
+        int middle = size / 2;
+        measure("MyArrayList.add", size, size, i -> {
+            MyArrayList<Integer> list = new MyArrayList<>();
+            for (int k = 0; k < size; k++) {
+                list.add(pool[k & (pool_size - 1)]);
+            }
+        });
+        measure("ArrayList.add", size, size, i -> {
+            ArrayList<Integer> list = new ArrayList<>();
+            for (int k = 0; k < size; k++) {
+                list.add(pool[k & (pool_size - 1)]);
+            }
+        });
+
+        MyArrayList<Integer> mine = new MyArrayList<>();
+        ArrayList<Integer> jdk = new ArrayList<>();
+        for (int k = 0; k < size; k++) {
+            mine.add(pool[k & (pool_size - 1)]);
+            jdk.add(pool[k & (pool_size - 1)]);
+        }
+        measure("MyArrayList.get", size, 1, i -> mine.get(randomIndex[i & (pool_size - 1)]));
+        measure("ArrayList.get", size, 1, i -> jdk.get(randomIndex[i & (pool_size - 1)]));
+        measure("MyArrayList.insert(mid)+removeLast", size, 1, i -> {
+            mine.add(middle, pool[i & (pool_size - 1)]);
+            mine.removeLast();
+        });
+        measure("ArrayList.insert(mid)+removeLast", size, 1, i -> {
+            jdk.add(middle, pool[i & (pool_size - 1)]);
+            jdk.remove(jdk.size() - 1);
+        });
+        measure("MyArrayList.remove(mid)+add", size, 1, i -> {
+            mine.remove(middle);
+            mine.add(pool[i & (pool_size - 1)]);
+        });
+        measure("ArrayList.remove(mid)+add", size, 1, i -> {
+            jdk.remove(middle);
+            jdk.add(pool[i & (pool_size - 1)]);
+        });
+        measure("MyArrayList.indexOf(miss)", size, 1, i -> mine.indexOf(missing));
+        measure("ArrayList.indexOf(miss)", size, 1, i -> jdk.indexOf(missing));
+    }
+
+    /**
+     * @brief Benchmarks MyLinkedList against java.util.LinkedList.
+     * @param size The number of elements in the list.
+     */
+    private static void linkedLists(int size) {
+        measure("MyLinkedList.add", size, size, i -> {
+            MyLinkedList<Integer> list = new MyLinkedList<>();
+            for (int k = 0; k < size; k++) {
+                list.add(pool[k & (pool_size - 1)]);
+            }
+        });
+        measure("LinkedList.add", size, size, i -> {
+            LinkedList<Integer> list = new LinkedList<>();
+            for (int k = 0; k < size; k++) {
+                list.add(pool[k & (pool_size - 1)]);
+            }
+        });
+
+        MyLinkedList<Integer> mine = new MyLinkedList<>();
+        LinkedList<Integer> jdk = new LinkedList<>();
+        for (int k = 0; k < size; k++) {
+            mine.add(pool[k & (pool_size - 1)]);
+            jdk.add(pool[k & (pool_size - 1)]);
+        }
+        measure("MyLinkedList.get (getNode)", size, 1, i -> mine.get(randomIndex[i & (pool_size - 1)]));
+        measure("LinkedList.get", size, 1, i -> jdk.get(randomIndex[i & (pool_size - 1)]));
+        measure("MyLinkedList.removeFirst+addLast", size, 1, i -> {
+            mine.removeFirst();
+            mine.addLast(pool[i & (pool_size - 1)]);
+        });
+        measure("LinkedList.removeFirst+addLast", size, 1, i -> {
+            jdk.removeFirst();
+            jdk.addLast(pool[i & (pool_size - 1)]);
+        });
+    }
+
+    /**
+     * @brief Benchmarks MyQueue against java.util.ArrayDeque used as a queue.
+     * @param size The number of elements kept in the queue.
+     */
+    private static void queues(int size) {
+        MyQueue<Integer> mine = new MyQueue<>();
+        ArrayDeque<Integer> jdk = new ArrayDeque<>();
+        for (int k = 0; k < size; k++) {
+            mine.enqueue(pool[k & (pool_size - 1)]);
+            jdk.addLast(pool[k & (pool_size - 1)]);
+        }
+        measure("MyQueue.enqueue+dequeue", size, 1, i -> {
+            mine.enqueue(pool[i & (pool_size - 1)]);
+            mine.dequeue();
+        });
+        measure("ArrayDeque.addLast+pollFirst", size, 1, i -> {
+            jdk.addLast(pool[i & (pool_size - 1)]);
+            jdk.pollFirst();
+        });
+    }
+
+    /**
+     * @brief Benchmarks MyStack against java.util.ArrayDeque used as a stack.
+     * @param size The number of elements kept on the stack.
+     */
+    private static void stacks(int size) {
+        MyStack<Integer> mine = new MyStack<>();
+        ArrayDeque<Integer> jdk = new ArrayDeque<>();
+        for (int k = 0; k < size; k++) {
+            mine.push(pool[k & (pool_size - 1)]);
+            jdk.push(pool[k & (pool_size - 1)]);
+        }
+        measure("MyStack.push+pop", size, 1, i -> {
+            mine.push(pool[i & (pool_size - 1)]);
+            mine.pop();
+        });
+        measure("ArrayDeque.push+pop", size, 1, i -> {
+            jdk.push(pool[i & (pool_size - 1)]);
+            jdk.pop();
+        });
+    }
+
+    /**
+     * @brief Benchmarks MinHeap against java.util.PriorityQueue.
+     * @param size The number of elements kept in the heap.
+     */
+    private static void heaps(int size) {
+        MinHeap<Integer> mine = new MinHeap<>();
+        PriorityQueue<Integer> jdk = new PriorityQueue<>();
+        for (int k = 0; k < size; k++) {
+            mine.insert(pool[k & (pool_size - 1)]);
+            jdk.add(pool[k & (pool_size - 1)]);
+        }
+        measure("MinHeap.insert+extractMin", size, 1, i -> {
+            mine.insert(pool[i & (pool_size - 1)]);
+            mine.extractMin();
+        });
+        measure("PriorityQueue.add+poll", size, 1, i -> {
+            jdk.add(pool[i & (pool_size - 1)]);
+            jdk.poll();
+        });
+    }
+
+    /**
+     * @brief Warms up an operation, measures it for a fixed time and prints the result.
+     * Operations are run in batches that double until a batch takes about a millisecond,
+     * so the clock is read rarely for fast operations.
+     * @param name The name of the benchmark.
+     * @param size The size of the structure being measured.
+     * @param elementsPerOp The number of elements one call handles, used to report per-element numbers.
+     * @param operation The operation to run, given a running counter.
+     */
+    private static void measure(String name, int size, int elementsPerOp, IntConsumer operation) {
+        int counter = 0;
+        int batch = 1;
+        long deadline = System.nanoTime() + warmup_nanos;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            for (int k = 0; k < batch; k++) {
+                operation.accept(counter++);
+            }
+            if (System.nanoTime() - start < 1_000_000L && batch < (1 << 20)) {
+                batch <<= 1;
+            }
+        }
+
+        long operations = 0;
+        long bytesBefore = Benchmarks.allocatedBytes();
+        long start = System.nanoTime();
+        long end = start + measure_nanos;
+        long now = start;
+        while (now < end) {
+            for (int k = 0; k < batch; k++) {
+                operation.accept(counter++);
+            }
+            operations += batch;
+            now = System.nanoTime();
+        }
+        long bytes = Benchmarks.allocatedBytes() - bytesBefore;
+        double elements = (double) operations * elementsPerOp;
+        System.out.printf("%-34s %,10d %,14.1f %,12.2f%n", name, size, (now - start) / elements, bytes / elements);
+    }
+}
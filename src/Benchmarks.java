@@ -0,0 +1,1437 @@
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+
+/**
+ * @brief Simple performance comparisons for the collections in this project.
+ * Run with "java Benchmarks". Allocation is measured per thread through
+ * com.sun.management.ThreadMXBean, so the numbers do not depend on GC timing.
+ * BenchmarkSuite has the per-operation baseline against java.util.
+ */
+public class Benchmarks {
+    private static final int ten_million = 10_000_000;
+    private static final int sort_size = 5_000_000;
+    private static final int queue_depth = 1_000;
+    private static final int concurrent_threads = 16; // Producers, and separately consumers
+    private static final int concurrent_items_per_producer = 200_000;
+    private static final int drain_batch = 256;
+    private static final int[] heap_thread_counts = {1, 2, 4, 8, 16, 32};
+    private static final int heap_ops_per_thread = 200_000;
+    private static final int heap_prefill = 10_000;
+    private static final int dedup_plain_size = 50_000;
+    private static final int dedup_indexed_size = 1_000_000;
+    private static final int linked_size = 1_000_000;
+    private static final int middle_inserts = 2_000;
+    private static final int tree_edits = 1_000_000;
+    private static final int array_edits = 200; // MyArrayList moves ~20 MB per edit at ten_million
+    private static final int indexed_walk_size = 50_000; // get(i) loops over MyLinkedList are quadratic
+    private static final int[] stream_sizes = {1_000_000, 10_000_000, 100_000_000};
+    private static final int insert_batch = 10_000;
+    private static final int read_mostly_readers = 8;
+    private static final int read_mostly_reads = 5_000_000; // Per reader
+    private static final int read_mostly_size = 1_000;
+    private static final int version_count = 1_000;
+    private static final int[] scaling_thread_counts = {1, 2, 4, 8, 16};
+    private static final int stack_ops_per_thread = 1_000_000;
+    private static final int appends_per_thread = 1_000_000;
+    private static final int latency_size = 100_000_000;
+    private static final int snapshot_size = 32_000_000; // 256 MB of 8-byte records
+    private static final int external_sort_size = 20_000_000;
+    private static final int external_run_size = 1_000_000;
+    private static final int spill_memory_limit = 1_000_000;
+    private static final int top_k_size = 20_000_000;
+    private static final int top_k = 100;
+    private static final int stream_linked_limit = 10_000_000; // 100M linked nodes need about 2.4 GB of heap
+
+    /**
+     * @brief The entry point that runs every comparison.
+     * @param args Command-line arguments (not used).
+     */
+    public static void main(String[] args) throws IOException {
+        compareIntListAllocation(ten_million);
+        compareSort(sort_size);
+        compareQueueThroughput(ten_million, queue_depth);
+        compareConcurrentQueue(concurrent_threads, concurrent_items_per_producer);
+        compareSpscQueue(ten_million);
+        comparePriorityQueueScaling(heap_thread_counts, heap_ops_per_thread);
+        compareIndexedDedup(dedup_plain_size, dedup_indexed_size);
+        comparePrimitiveScans(ten_million);
+        compareUnrolledList(linked_size, middle_inserts);
+        compareTreeList(ten_million, tree_edits, array_edits);
+        compareTraversal(ten_million, linked_size, indexed_walk_size);
+        compareStreamReduction(stream_sizes, stream_linked_limit);
+        compareBulkLoad(ten_million, linked_size, insert_batch);
+        compareReadMostly(read_mostly_readers, read_mostly_reads, read_mostly_size);
+        compareVersioning(linked_size, version_count);
+        compareConcurrentStack(concurrent_threads, concurrent_items_per_producer, scaling_thread_counts, stack_ops_per_thread);
+        compareConcurrentAppend(scaling_thread_counts, appends_per_thread);
+        measureInstrumentedPaths(ten_million);
+        compareAddLatency(latency_size);
+        compareSnapshots(snapshot_size);
+        compareExternalSort(external_sort_size, external_run_size, spill_memory_limit);
+        compareTopK(top_k_size, top_k);
+    }
+
+    /**
+     * @brief Compares the bytes allocated while filling MyArrayList<Integer> and IntArrayList.
+     * @param count The number of elements to add to each list.
+     */
+    private static void compareIntListAllocation(int count) {
+        System.out.println("Allocation for " + count + " int elements:");
+
+        long before = allocatedBytes();
+        MyArrayList<Integer> boxed = new MyArrayList<>();
+        for (int i = 0; i < count; i++) {
+            boxed.add(i);
+        }
+        long boxedBytes = allocatedBytes() - before;
+        report("MyArrayList<Integer>", boxedBytes, count);
+
+        before = allocatedBytes();
+        IntArrayList primitive = new IntArrayList();
+        for (int i = 0; i < count; i++) {
+            primitive.add(i);
+        }
+        long primitiveBytes = allocatedBytes() - before;
+        report("IntArrayList", primitiveBytes, count);
+
+        // Keep both lists reachable until both measurements are done
+        System.out.println("  (sizes " + boxed.size() + " / " + primitive.size() + ")");
+    }
+
+    /**
+     * @brief Compares MyArrayList.sort against copying out through toArray and sorting on one thread.
+     * @param count The number of random elements to sort.
+     */
+    private static void compareSort(int count) {
+        System.out.println("Sorting " + count + " random Integer elements (" + Runtime.getRuntime().availableProcessors() + " cores):");
+        Random random = new Random(42);
+        Integer[] values = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt();
+        }
+
+        MyArrayList<Integer> list = new MyArrayList<>();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        long start = System.nanoTime();
+        Object[] copy = list.toArray();
+        Arrays.sort(copy);
+        list.clear();
+        for (Object value : copy) {
+            list.add((Integer) value);
+        }
+        System.out.printf("  %-24s %,8d ms%n", "toArray + Arrays.sort", (System.nanoTime() - start) / 1_000_000);
+
+        list.clear();
+        for (Integer value : values) {
+            list.add(value);
+        }
+        start = System.nanoTime();
+        list.sort();
+        System.out.printf("  %-24s %,8d ms%n", "MyArrayList.sort", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * @brief Compares MyQueue against the previous MyLinkedList-backed queue.
+     * The linked version is driven the same way the old MyQueue drove it:
+     * addFirst to enqueue, get(size - 1) to peek and removeLast to dequeue.
+     * @param operations The number of enqueue/dequeue pairs to run.
+     * @param depth The number of elements kept in the queue during the run.
+     */
+    private static void compareQueueThroughput(int operations, int depth) {
+        System.out.println("Queue throughput, " + operations + " enqueue/dequeue pairs at depth " + depth + ":");
+        Integer value = 7;
+
+        MyLinkedList<Integer> linked = new MyLinkedList<>();
+        for (int i = 0; i < depth; i++) {
+            linked.addFirst(value);
+        }
+        long before = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            linked.addFirst(value);
+            linked.get(linked.size() - 1);
+            linked.removeLast();
+        }
+        reportThroughput("MyLinkedList queue", operations, System.nanoTime() - start, allocatedBytes() - before);
+
+        MyQueue<Integer> queue = new MyQueue<>();
+        for (int i = 0; i < depth; i++) {
+            queue.enqueue(value);
+        }
+        before = allocatedBytes();
+        start = System.nanoTime();
+        for (int i = 0; i < operations; i++) {
+            queue.enqueue(value);
+            queue.peek();
+            queue.dequeue();
+        }
+        reportThroughput("MyQueue (MyArrayDeque)", operations, System.nanoTime() - start, allocatedBytes() - before);
+    }
+
+    /**
+     * @brief Compares MyConcurrentQueue against a MyQueue guarded by synchronized.
+     * Every producer sends its own range of values and every consumer marks what
+     * it receives, so the run also checks that nothing was lost or duplicated.
+     * @param threads The number of producer threads and of consumer threads.
+     * @param itemsPerProducer The number of values each producer sends.
+     */
+    private static void compareConcurrentQueue(int threads, int itemsPerProducer) {
+        System.out.println("Concurrent queue, " + threads + " producers / " + threads + " consumers, " + itemsPerProducer + " items each:");
+
+        MyQueue<Integer> locked = new MyQueue<>();
+        runConcurrentQueue("synchronized MyQueue", threads, itemsPerProducer, true, value -> {
+            synchronized (locked) {
+                locked.enqueue(value);
+            }
+            return true;
+        }, () -> {
+            synchronized (locked) {
+                return locked.isEmpty() ? null : locked.dequeue();
+            }
+        });
+
+        MyConcurrentQueue<Integer> lockFree = new MyConcurrentQueue<>(1 << 14);
+        runConcurrentQueue("MyConcurrentQueue", threads, itemsPerProducer, true, lockFree::offer, lockFree::poll);
+    }
+
+    /**
+     * @brief Compares MySpscQueue, polled one at a time and drained in batches, against MyConcurrentQueue with one producer and one consumer.
+     * @param items The number of values to pass from the producer to the consumer.
+     */
+    private static void compareSpscQueue(int items) {
+        System.out.println("One producer / one consumer, " + items + " items:");
+
+        MyConcurrentQueue<Integer> mpmc = new MyConcurrentQueue<>(1 << 14);
+        runConcurrentQueue("MyConcurrentQueue", 1, items, true, mpmc::offer, mpmc::poll);
+
+        MySpscQueue<Integer> spsc = new MySpscQueue<>(1 << 14);
+        runConcurrentQueue("MySpscQueue poll", 1, items, true, spsc::offer, spsc::poll);
+
+        MySpscQueue<Integer> batched = new MySpscQueue<>(1 << 14);
+        MyArrayDeque<Integer> pending = new MyArrayDeque<>(drain_batch);
+        runConcurrentQueue("MySpscQueue drain", 1, items, true, batched::offer, () -> {
+            if (pending.isEmpty()) {
+                batched.drain(pending::addLast, drain_batch);
+            }
+            return pending.isEmpty() ? null : pending.removeFirst();
+        });
+    }
+
+    /**
+     * @brief Compares a synchronized MinHeap with MyConcurrentPriorityQueue in strict and relaxed mode across thread counts.
+     * Every thread runs insert/extractMin pairs on a prefilled queue, the usual timer-scheduler pattern.
+     * @param threadCounts The thread counts to measure.
+     * @param opsPerThread The number of insert/extractMin pairs each thread runs.
+     */
+    private static void comparePriorityQueueScaling(int[] threadCounts, int opsPerThread) {
+        System.out.println("Priority queue, " + opsPerThread + " insert/extractMin pairs per thread:");
+        for (int threads : threadCounts) {
+            MinHeap<Integer> heap = new MinHeap<>();
+            MyConcurrentPriorityQueue<Integer> strict = new MyConcurrentPriorityQueue<>(threads * 2, true);
+            MyConcurrentPriorityQueue<Integer> relaxed = new MyConcurrentPriorityQueue<>(threads * 2, false);
+            Random random = new Random(42);
+            for (int i = 0; i < heap_prefill; i++) {
+                int value = random.nextInt();
+                heap.insert(value);
+                strict.insert(value);
+                relaxed.insert(value);
+            }
+
+            double lockedRate = runPriorityQueue(threads, opsPerThread, value -> {
+                synchronized (heap) {
+                    heap.insert(value);
+                    heap.extractMin();
+                }
+            });
+            double strictRate = runPriorityQueue(threads, opsPerThread, value -> {
+                strict.insert(value);
+                strict.extractMin();
+            });
+            double relaxedRate = runPriorityQueue(threads, opsPerThread, value -> {
+                relaxed.insert(value);
+                relaxed.extractMin();
+            });
+            System.out.printf("  %2d threads  locked %,12.0f  strict %,12.0f  relaxed %,12.0f pairs/s%n",
+                    threads, lockedRate, strictRate, relaxedRate);
+        }
+    }
+
+    /**
+     * @brief Runs one insert/extractMin pair operation on several threads and measures the combined rate.
+     * @param threads The number of threads.
+     * @param opsPerThread The number of operations each thread runs.
+     * @param operation The operation to run, given a random value to insert.
+     * @return The number of operations per second over all threads.
+     */
+    private static double runPriorityQueue(int threads, int opsPerThread, IntConsumer operation) {
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < opsPerThread; i++) {
+                    operation.accept(random.nextInt());
+                }
+            });
+        }
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return 0;
+            }
+        }
+        return (double) threads * opsPerThread * 1e9 / (System.nanoTime() - start);
+    }
+
+    /**
+     * @brief Compares a dedup load (exists before every add) on MyArrayList and HashIndexedList, and the memory the index costs.
+     * @param plainSize The number of values to load into the plain list, which is O(n^2).
+     * @param indexedSize The number of values to load into the indexed list.
+     */
+    private static void compareIndexedDedup(int plainSize, int indexedSize) {
+        System.out.println("Dedup load (exists + add), half of the values repeated:");
+        Integer[] values = new Integer[indexedSize];
+        for (int i = 0; i < indexedSize; i++) {
+            values[i] = i % (indexedSize / 2);
+        }
+
+        MyArrayList<Integer> plain = new MyArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 0; i < plainSize; i++) {
+            if (!plain.exists(values[i])) {
+                plain.add(values[i]);
+            }
+        }
+        System.out.printf("  %-24s %,10d values %,8d ms%n", "MyArrayList", plainSize, (System.nanoTime() - start) / 1_000_000);
+
+        long before = allocatedBytes();
+        HashIndexedList<Integer> indexed = new HashIndexedList<>();
+        start = System.nanoTime();
+        for (int i = 0; i < indexedSize; i++) {
+            if (!indexed.exists(values[i])) {
+                indexed.add(values[i]);
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        long indexedBytes = allocatedBytes() - before;
+        System.out.printf("  %-24s %,10d values %,8d ms%n", "HashIndexedList", indexedSize, nanos / 1_000_000);
+
+        before = allocatedBytes();
+        MyArrayList<Integer> reference = new MyArrayList<>();
+        for (int i = 0; i < indexed.size(); i++) {
+            reference.add(indexed.get(i));
+        }
+        long plainBytes = allocatedBytes() - before;
+        System.out.printf("  index allocated %,d extra bytes for %,d elements (%.1f bytes/element, including HashMap resizes)%n",
+                indexedBytes - plainBytes, indexed.size(), (double) (indexedBytes - plainBytes) / indexed.size());
+    }
+
+    /**
+     * @brief Compares full scans over MyArrayList<Integer> and IntArrayList.
+     * @param count The number of elements in each list.
+     */
+    private static void comparePrimitiveScans(int count) {
+        System.out.println("Scans over " + count + " int elements (best of 10 runs):");
+        MyArrayList<Integer> boxed = new MyArrayList<>();
+        IntArrayList primitive = new IntArrayList(count);
+        for (int i = 0; i < count; i++) {
+            boxed.add(i % 1000);
+            primitive.add(i % 1000);
+        }
+        Integer missing = -1;
+
+        long boxedSearch = Long.MAX_VALUE;
+        long primitiveSearch = Long.MAX_VALUE;
+        long boxedCount = Long.MAX_VALUE;
+        long primitiveCount = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            checksum += boxed.indexOf(missing);
+            long afterBoxedSearch = System.nanoTime();
+            checksum += primitive.indexOf(-1);
+            long afterPrimitiveSearch = System.nanoTime();
+            int below = 0;
+            for (int i = 0; i < count; i++) {
+                if (boxed.get(i) < 500) {
+                    below++;
+                }
+            }
+            checksum += below;
+            long afterBoxedCount = System.nanoTime();
+            checksum += primitive.countLessThan(500);
+            long afterPrimitiveCount = System.nanoTime();
+
+            boxedSearch = Math.min(boxedSearch, afterBoxedSearch - start);
+            primitiveSearch = Math.min(primitiveSearch, afterPrimitiveSearch - afterBoxedSearch);
+            boxedCount = Math.min(boxedCount, afterBoxedCount - afterPrimitiveSearch);
+            primitiveCount = Math.min(primitiveCount, afterPrimitiveCount - afterBoxedCount);
+        }
+        System.out.printf("  %-24s boxed %8.2f ms  primitive %8.2f ms%n", "indexOf (miss)", boxedSearch / 1e6, primitiveSearch / 1e6);
+        System.out.printf("  %-24s boxed %8.2f ms  primitive %8.2f ms%n", "count < constant", boxedCount / 1e6, primitiveCount / 1e6);
+        System.out.println("  (checksum " + checksum + ")");
+    }
+
+    /**
+     * @brief Compares MyLinkedList with UnrolledLinkedList on memory, full traversal and middle inserts.
+     * @param count The number of elements in each list.
+     * @param inserts The number of add(size / 2) + removeLast pairs to time.
+     */
+    private static void compareUnrolledList(int count, int inserts) {
+        System.out.println("Linked lists with " + count + " elements:");
+        Integer value = 7;
+        Integer missing = -1;
+
+        long before = allocatedBytes();
+        MyLinkedList<Integer> linked = new MyLinkedList<>();
+        for (int i = 0; i < count; i++) {
+            linked.add(value);
+        }
+        long linkedBytes = allocatedBytes() - before;
+        before = allocatedBytes();
+        UnrolledLinkedList<Integer> unrolled = new UnrolledLinkedList<>();
+        for (int i = 0; i < count; i++) {
+            unrolled.add(value);
+        }
+        long unrolledBytes = allocatedBytes() - before;
+        System.out.printf("  %-24s MyLinkedList %8.2f  UnrolledLinkedList %8.2f bytes/element%n", "memory",
+                (double) linkedBytes / count, (double) unrolledBytes / count);
+
+        long linkedScan = Long.MAX_VALUE;
+        long unrolledScan = Long.MAX_VALUE;
+        for (int run = 0; run < 10; run++) {
+            long start = System.nanoTime();
+            linked.indexOf(missing);
+            long middle = System.nanoTime();
+            unrolled.indexOf(missing);
+            long end = System.nanoTime();
+            linkedScan = Math.min(linkedScan, middle - start);
+            unrolledScan = Math.min(unrolledScan, end - middle);
+        }
+        System.out.printf("  %-24s MyLinkedList %8.2f  UnrolledLinkedList %8.2f ms%n", "traversal", linkedScan / 1e6, unrolledScan / 1e6);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < inserts; i++) {
+            linked.add(count / 2, value);
+            linked.removeLast();
+        }
+        long linkedInsert = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < inserts; i++) {
+            unrolled.add(count / 2, value);
+            unrolled.removeLast();
+        }
+        long unrolledInsert = System.nanoTime() - start;
+        System.out.printf("  %-24s MyLinkedList %8.2f  UnrolledLinkedList %8.2f us/op%n", "middle insert",
+                linkedInsert / 1e3 / inserts, unrolledInsert / 1e3 / inserts);
+    }
+
+    /**
+     * @brief Compares random positional edits on BTreeList and MyArrayList of the same size.
+     * Each edit is an add(index) at a random position followed by a remove(index) at
+     * another random position, so the size stays constant; random gets are timed separately.
+     * @param count The number of elements in each list.
+     * @param treeEdits The number of edits timed on BTreeList.
+     * @param arrayEdits The number of edits timed on MyArrayList, which is far slower per edit.
+     */
+    private static void compareTreeList(int count, int treeEdits, int arrayEdits) {
+        System.out.println("Random positional edits with " + count + " elements:");
+        Integer value = 7;
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        BTreeList<Integer> tree = new BTreeList<>();
+        for (int i = 0; i < count; i++) {
+            tree.add(value);
+        }
+        System.out.printf("  %-24s BTreeList %8.2f ns/op%n", "append", (double) (System.nanoTime() - start) / count);
+        MyArrayList<Integer> array = new MyArrayList<>();
+        for (int i = 0; i < count; i++) {
+            array.add(value);
+        }
+
+        start = System.nanoTime();
+        for (int i = 0; i < treeEdits; i++) {
+            tree.add(random.nextInt(count + 1), value);
+            tree.remove(random.nextInt(count + 1));
+        }
+        long treeEdit = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < arrayEdits; i++) {
+            array.add(random.nextInt(count + 1), value);
+            array.remove(random.nextInt(count + 1));
+        }
+        long arrayEdit = System.nanoTime() - start;
+        System.out.printf("  %-24s MyArrayList %10.1f  BTreeList %8.1f ns/op%n", "add + remove at random",
+                (double) arrayEdit / arrayEdits, (double) treeEdit / treeEdits);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < treeEdits; i++) {
+            sum += array.get(random.nextInt(count));
+        }
+        long arrayGet = System.nanoTime() - start;
+        start = System.nanoTime();
+        for (int i = 0; i < treeEdits; i++) {
+            sum += tree.get(random.nextInt(count));
+        }
+        long treeGet = System.nanoTime() - start;
+        System.out.printf("  %-24s MyArrayList %10.1f  BTreeList %8.1f ns/op  (checksum %d)%n", "get(index)",
+                (double) arrayGet / treeEdits, (double) treeGet / treeEdits, sum);
+    }
+
+    /**
+     * @brief Compares full traversals by index, by iterator and by forEach, with the bytes allocated per traversal.
+     * Each style is run a few times first so that the JIT has compiled the loop before it is measured.
+     * @param arrayCount The number of elements in the MyArrayList.
+     * @param linkedCount The number of elements in the MyLinkedList.
+     * @param indexedCount The number of MyLinkedList elements walked with get(i), which is O(n^2).
+     */
+    private static void compareTraversal(int arrayCount, int linkedCount, int indexedCount) {
+        System.out.println("Full traversals:");
+        MyArrayList<Integer> array = new MyArrayList<>();
+        for (int i = 0; i < arrayCount; i++) {
+            array.add(i);
+        }
+        MyLinkedList<Integer> linked = new MyLinkedList<>();
+        for (int i = 0; i < linkedCount; i++) {
+            linked.add(i);
+        }
+        MyLinkedList<Integer> shortLinked = new MyLinkedList<>();
+        for (int i = 0; i < indexedCount; i++) {
+            shortLinked.add(i);
+        }
+
+        timeTraversal("MyArrayList get(i)", arrayCount, () -> {
+            long sum = 0;
+            for (int i = 0; i < array.size(); i++) {
+                sum += array.get(i);
+            }
+            return sum;
+        });
+        timeTraversal("MyArrayList iterator", arrayCount, () -> {
+            long sum = 0;
+            for (Integer value : array) {
+                sum += value;
+            }
+            return sum;
+        });
+        timeTraversal("MyArrayList forEach", arrayCount, () -> {
+            long[] sum = new long[1];
+            array.forEach(value -> sum[0] += value);
+            return sum[0];
+        });
+        timeTraversal("MyLinkedList get(i)", indexedCount, () -> {
+            long sum = 0;
+            for (int i = 0; i < shortLinked.size(); i++) {
+                sum += shortLinked.get(i);
+            }
+            return sum;
+        });
+        timeTraversal("MyLinkedList iterator", linkedCount, () -> {
+            long sum = 0;
+            for (Integer value : linked) {
+                sum += value;
+            }
+            return sum;
+        });
+        timeTraversal("MyLinkedList forEach", linkedCount, () -> {
+            long[] sum = new long[1];
+            linked.forEach(value -> sum[0] += value);
+            return sum[0];
+        });
+    }
+
+    /**
+     * @brief Runs a traversal five times and reports the fastest run and the bytes allocated by the last one.
+     * @param name The name of the traversal.
+     * @param count The number of elements visited per run.
+     * @param traversal The traversal, returning a checksum so that it is not optimized away.
+     */
+    private static void timeTraversal(String name, int count, Supplier<Long> traversal) {
+        long best = Long.MAX_VALUE;
+        long bytes = 0;
+        long checksum = 0;
+        for (int run = 0; run < 5; run++) {
+            long before = allocatedBytes();
+            long start = System.nanoTime();
+            checksum += traversal.get();
+            best = Math.min(best, System.nanoTime() - start);
+            bytes = allocatedBytes() - before;
+        }
+        System.out.printf("  %-24s %8.2f ns/element %,12d bytes/traversal  (checksum %d)%n",
+                name, (double) best / count, bytes, checksum);
+    }
+
+    /**
+     * @brief Compares sequential and parallel sums over stream() for MyArrayList and MyLinkedList.
+     * The lists hold cached small Integer values, so 100M elements cost only the reference array.
+     * @param sizes The list sizes to measure.
+     * @param linkedLimit The largest size measured for MyLinkedList.
+     */
+    private static void compareStreamReduction(int[] sizes, int linkedLimit) {
+        System.out.println("Stream sum, sequential vs parallel (" + Runtime.getRuntime().availableProcessors() + " cores):");
+        for (int size : sizes) {
+            MyArrayList<Integer> array = new MyArrayList<>();
+            for (int i = 0; i < size; i++) {
+                array.add(i & 127);
+            }
+            timeReduction("MyArrayList", size, array);
+            array = null;
+
+            if (size <= linkedLimit) {
+                MyLinkedList<Integer> linked = new MyLinkedList<>();
+                for (int i = 0; i < size; i++) {
+                    linked.add(i & 127);
+                }
+                timeReduction("MyLinkedList", size, linked);
+            }
+        }
+    }
+
+    /**
+     * @brief Times the fastest of three sequential and three parallel stream sums over a list.
+     * @param name The name of the list type.
+     * @param size The number of elements in the list.
+     * @param list The list to sum.
+     */
+    private static void timeReduction(String name, int size, MyList<Integer> list) {
+        long sequential = Long.MAX_VALUE;
+        long parallel = Long.MAX_VALUE;
+        long checksum = 0;
+        for (int run = 0; run < 3; run++) {
+            long start = System.nanoTime();
+            checksum += list.stream().mapToLong(Integer::longValue).sum();
+            long middle = System.nanoTime();
+            checksum -= list.parallelStream().mapToLong(Integer::longValue).sum();
+            long end = System.nanoTime();
+            sequential = Math.min(sequential, middle - start);
+            parallel = Math.min(parallel, end - middle);
+        }
+        if (checksum != 0) {
+            throw new IllegalStateException(name + ": sequential and parallel sums differ");
+        }
+        System.out.printf("  %-14s %,12d  sequential %8.2f ms  parallel %8.2f ms  speedup %5.2fx%n",
+                name, size, sequential / 1e6, parallel / 1e6, (double) sequential / parallel);
+    }
+
+    /**
+     * @brief Compares loading and mid-list inserts one element at a time against the MyArrayList bulk operations.
+     * @param count The number of elements loaded.
+     * @param listSize The size of the list a batch is inserted into.
+     * @param batch The number of elements inserted in the middle at once.
+     */
+    private static void compareBulkLoad(int count, int listSize, int batch) {
+        System.out.println("MyArrayList bulk operations:");
+        Integer value = 7;
+        Object[] source = new Object[count];
+        Arrays.fill(source, value);
+
+        long before = allocatedBytes();
+        long start = System.nanoTime();
+        MyArrayList<Integer> looped = new MyArrayList<>();
+        for (int i = 0; i < count; i++) {
+            looped.add(value);
+        }
+        System.out.printf("  %-32s %8.2f ms %,14d bytes%n", "load " + count + " with add", (System.nanoTime() - start) / 1e6, allocatedBytes() - before);
+        looped = null;
+
+        before = allocatedBytes();
+        start = System.nanoTime();
+        MyArrayList<Integer> presized = new MyArrayList<>();
+        presized.ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            presized.add(value);
+        }
+        System.out.printf("  %-32s %8.2f ms %,14d bytes%n", "ensureCapacity + add", (System.nanoTime() - start) / 1e6, allocatedBytes() - before);
+        presized = null;
+
+        before = allocatedBytes();
+        start = System.nanoTime();
+        MyArrayList<Integer> bulk = new MyArrayList<>();
+        bulk.addAll(source);
+        System.out.printf("  %-32s %8.2f ms %,14d bytes%n", "addAll(Object[])", (System.nanoTime() - start) / 1e6, allocatedBytes() - before);
+        bulk = null;
+
+        Object[] inserted = Arrays.copyOf(source, batch);
+        MyArrayList<Integer> list = new MyArrayList<>();
+        list.addAll(Arrays.copyOf(source, listSize));
+        start = System.nanoTime();
+        for (int i = 0; i < batch; i++) {
+            list.add(listSize / 2 + i, value);
+        }
+        System.out.printf("  %-32s %8.2f ms%n", "insert " + batch + " with add(index)", (System.nanoTime() - start) / 1e6);
+        start = System.nanoTime();
+        list.removeRange(listSize / 2, listSize / 2 + batch);
+        list.addAll(listSize / 2, inserted);
+        System.out.printf("  %-32s %8.2f ms%n", "removeRange + addAll(index)", (System.nanoTime() - start) / 1e6);
+    }
+
+    /**
+     * @brief Compares reader throughput on a lock-guarded MyArrayList and on a CopyOnWriteList
+     * while one writer changes an element about every 100 microseconds.
+     * @param readers The number of reader threads.
+     * @param readsPerReader The number of get calls each reader makes.
+     * @param size The number of elements in the list.
+     */
+    private static void compareReadMostly(int readers, int readsPerReader, int size) {
+        System.out.println("Read-mostly sharing, " + readers + " readers and 1 writer over " + size + " elements:");
+        MyArrayList<Integer> locked = new MyArrayList<>();
+        CopyOnWriteList<Integer> copyOnWrite = new CopyOnWriteList<>();
+        for (int i = 0; i < size; i++) {
+            locked.add(i);
+        }
+        copyOnWrite.update(list -> list.addAll(locked));
+        ReentrantLock lock = new ReentrantLock();
+
+        runReadMostly("locked MyArrayList", readers, readsPerReader, index -> {
+            lock.lock();
+            try {
+                return locked.get(index);
+            } finally {
+                lock.unlock();
+            }
+        }, index -> {
+            lock.lock();
+            try {
+                locked.set(index, index);
+            } finally {
+                lock.unlock();
+            }
+        }, size);
+        runReadMostly("CopyOnWriteList", readers, readsPerReader, copyOnWrite::get,
+                index -> copyOnWrite.set(index, index), size);
+    }
+
+    /**
+     * @brief Runs the readers and the writer of compareReadMostly and reports the reads per second.
+     * @param name The name of the measured structure.
+     * @param readers The number of reader threads.
+     * @param readsPerReader The number of reads each reader makes.
+     * @param read Reads the element at an index.
+     * @param write Writes the element at an index.
+     * @param size The number of elements in the list.
+     */
+    private static void runReadMostly(String name, int readers, int readsPerReader,
+                                      IntFunction<Integer> read, IntConsumer write, int size) {
+        AtomicInteger running = new AtomicInteger(readers);
+        Thread writer = new Thread(() -> {
+            int index = 0;
+            while (running.get() > 0) {
+                write.accept(index);
+                index = (index + 1) % size;
+                LockSupport.parkNanos(100_000);
+            }
+        });
+        Thread[] threads = new Thread[readers];
+        long[] checksums = new long[readers];
+        for (int t = 0; t < readers; t++) {
+            int slot = t;
+            threads[t] = new Thread(() -> {
+                long sum = 0;
+                for (int i = 0; i < readsPerReader; i++) {
+                    sum += read.apply(i % size);
+                }
+                checksums[slot] = sum;
+                running.decrementAndGet();
+            });
+        }
+        long start = System.nanoTime();
+        writer.start();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        try {
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long nanos = System.nanoTime() - start;
+        System.out.printf("  %-24s %,15.0f reads/s%n", name, (double) readers * readsPerReader * 1e9 / nanos);
+    }
+
+    /**
+     * @brief Compares keeping versions of a list as toArray copies against PersistentVector versions.
+     * Each version changes one random element of the previous one, and every version is kept.
+     * @param count The number of elements in the list.
+     * @param versions The number of versions kept.
+     */
+    private static void compareVersioning(int count, int versions) {
+        System.out.println("Keeping " + versions + " versions of a " + count + "-element list:");
+        Integer value = 7;
+        Random random = new Random(42);
+
+        long before = allocatedBytes();
+        long start = System.nanoTime();
+        PersistentVector<Integer> appended = PersistentVector.empty();
+        for (int i = 0; i < count; i++) {
+            appended = appended.add(value);
+        }
+        System.out.printf("  %-32s %8.2f ms %,14d bytes%n", "build with add()", (System.nanoTime() - start) / 1e6, allocatedBytes() - before);
+        before = allocatedBytes();
+        start = System.nanoTime();
+        PersistentVector.Builder<Integer> builder = PersistentVector.builder();
+        for (int i = 0; i < count; i++) {
+            builder.add(value);
+        }
+        PersistentVector<Integer> vector = builder.build();
+        System.out.printf("  %-32s %8.2f ms %,14d bytes%n", "build with Builder", (System.nanoTime() - start) / 1e6, allocatedBytes() - before);
+
+        MyArrayList<Integer> list = new MyArrayList<>();
+        list.addAll(vector.toArray());
+        Object[][] copies = new Object[versions][];
+        before = allocatedBytes();
+        start = System.nanoTime();
+        for (int v = 0; v < versions; v++) {
+            list.set(random.nextInt(count), v);
+            copies[v] = list.toArray();
+        }
+        System.out.printf("  %-32s %8.2f us %,14d bytes/version%n", "MyArrayList set + toArray",
+                (System.nanoTime() - start) / 1e3 / versions, (allocatedBytes() - before) / versions);
+
+        PersistentVector<?>[] history = new PersistentVector<?>[versions];
+        before = allocatedBytes();
+        start = System.nanoTime();
+        for (int v = 0; v < versions; v++) {
+            vector = vector.set(random.nextInt(count), v);
+            history[v] = vector;
+        }
+        System.out.printf("  %-32s %8.2f us %,14d bytes/version%n", "PersistentVector set",
+                (System.nanoTime() - start) / 1e3 / versions, (allocatedBytes() - before) / versions);
+
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            sum += vector.get(random.nextInt(count));
+        }
+        System.out.printf("  %-32s %8.2f ns/op  (checksum %d, %d + %d versions)%n", "PersistentVector get",
+                (double) (System.nanoTime() - start) / count, sum, copies.length, history.length);
+    }
+
+    /**
+     * @brief Checks that MyConcurrentStack neither loses nor duplicates elements and pops in LIFO order,
+     * then compares push/pop throughput with a locked MyStack at growing thread counts.
+     * @param stressThreads The number of pushing threads, and separately popping threads, in the check.
+     * @param itemsPerPusher The number of values each pushing thread sends in the check.
+     * @param threadCounts The thread counts to measure.
+     * @param opsPerThread The number of push/pop pairs per thread.
+     */
+    private static void compareConcurrentStack(int stressThreads, int itemsPerPusher, int[] threadCounts, int opsPerThread) {
+        System.out.println("Concurrent stack, " + stressThreads + " pushers / " + stressThreads + " poppers, " + itemsPerPusher + " items each:");
+        MyConcurrentStack<Integer> checked = new MyConcurrentStack<>();
+        runConcurrentQueue("MyConcurrentStack", stressThreads, itemsPerPusher, false, value -> {
+            checked.push(value);
+            return true;
+        }, checked::poll);
+        checkStackOrder(stressThreads, itemsPerPusher);
+
+        System.out.println("Concurrent stack, " + opsPerThread + " push/pop pairs per thread:");
+        for (int threads : threadCounts) {
+            MyStack<Integer> stack = new MyStack<>();
+            MyConcurrentStack<Integer> lockFree = new MyConcurrentStack<>();
+            double lockedRate = runPriorityQueue(threads, opsPerThread, value -> {
+                synchronized (stack) {
+                    stack.push(value);
+                    stack.pop();
+                }
+            });
+            double lockFreeRate = runPriorityQueue(threads, opsPerThread, value -> {
+                lockFree.push(value);
+                lockFree.poll();
+            });
+            System.out.printf("  %2d threads  locked MyStack %,12.0f  MyConcurrentStack %,12.0f pairs/s%n",
+                    threads, lockedRate, lockFreeRate);
+        }
+    }
+
+    /**
+     * @brief Compares appends from several threads to a locked MyArrayList and to a ConcurrentAppendList,
+     * and checks that every appended value is stored exactly once and is readable as soon as add returns.
+     * @param threadCounts The thread counts to measure.
+     * @param addsPerThread The number of values each thread appends.
+     */
+    private static void compareConcurrentAppend(int[] threadCounts, int addsPerThread) {
+        System.out.println("Concurrent append, " + addsPerThread + " adds per thread:");
+        for (int threads : threadCounts) {
+            MyArrayList<Integer> locked = new MyArrayList<>();
+            ConcurrentAppendList<Integer> lockFree = new ConcurrentAppendList<>();
+            AtomicInteger lockedNext = new AtomicInteger();
+            AtomicInteger lockFreeNext = new AtomicInteger();
+            double lockedRate = runPriorityQueue(threads, addsPerThread, ignored -> {
+                Integer value = lockedNext.getAndIncrement();
+                synchronized (locked) {
+                    locked.add(value);
+                }
+            });
+            double lockFreeRate = runPriorityQueue(threads, addsPerThread, ignored -> lockFree.add(lockFreeNext.getAndIncrement()));
+
+            int total = threads * addsPerThread;
+            AtomicIntegerArray seen = new AtomicIntegerArray(total);
+            lockFree.forEach(seen::incrementAndGet);
+            int wrong = 0;
+            for (int i = 0; i < total; i++) {
+                wrong += seen.get(i) == 1 ? 0 : 1;
+            }
+            System.out.printf("  %2d threads  locked MyArrayList %,12.0f  ConcurrentAppendList %,12.0f adds/s  (size %d, %d values missing or duplicated)%n",
+                    threads, lockedRate, lockFreeRate, lockFree.size(), wrong);
+            if (wrong != 0) {
+                throw new IllegalStateException("ConcurrentAppendList lost or duplicated " + wrong + " values");
+            }
+            checkAppendVisibility(threads, addsPerThread);
+        }
+    }
+
+    /**
+     * @brief Checks that MyConcurrentStack pops every producer's values in the reverse of the order they were pushed.
+     * All values are pushed concurrently first, then popped concurrently until the stack is empty. A value pushed
+     * later sits above every earlier value of the same producer, so each popper must see them in decreasing order.
+     * @param threads The number of pushing threads, and separately popping threads.
+     * @param itemsPerPusher The number of values each pushing thread sends.
+     * @throws IllegalStateException if a value was lost, duplicated or popped out of LIFO order.
+     */
+    private static void checkStackOrder(int threads, int itemsPerPusher) {
+        MyConcurrentStack<Integer> stack = new MyConcurrentStack<>();
+        int total = threads * itemsPerPusher;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger reordered = new AtomicInteger();
+        Thread[] pushers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int producer = t;
+            pushers[t] = new Thread(() -> {
+                for (int i = 0; i < itemsPerPusher; i++) {
+                    stack.push(producer * itemsPerPusher + i);
+                }
+            });
+        }
+        startAndJoin(pushers);
+
+        Thread[] poppers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            poppers[t] = new Thread(() -> {
+                int[] last = new int[threads]; // Last value this popper received from each producer
+                Arrays.fill(last, Integer.MAX_VALUE);
+                Integer value;
+                while ((value = stack.poll()) != null) {
+                    int producer = value / itemsPerPusher;
+                    if (value > last[producer]) {
+                        reordered.incrementAndGet();
+                    }
+                    last[producer] = Math.min(last[producer], value);
+                    seen.incrementAndGet(value);
+                }
+            });
+        }
+        startAndJoin(poppers);
+
+        int lost = 0;
+        int duplicated = 0;
+        for (int i = 0; i < total; i++) {
+            int count = seen.get(i);
+            lost += count == 0 ? 1 : 0;
+            duplicated += Math.max(0, count - 1);
+        }
+        System.out.printf("  %-24s push all, then pop all: lost %d, duplicated %d, out of LIFO order %d%n",
+                "MyConcurrentStack", lost, duplicated, reordered.get());
+        if (lost != 0 || duplicated != 0 || reordered.get() != 0) {
+            throw new IllegalStateException("MyConcurrentStack lost " + lost + ", duplicated " + duplicated
+                    + " and reordered " + reordered.get() + " values");
+        }
+    }
+
+    /**
+     * @brief Checks that an index returned by ConcurrentAppendList.add is never seen unwritten.
+     * Writers publish every index right after add returns, while readers look the published indices up
+     * with tryGet, which does not wait. Afterwards every value must sit at the index add returned for it,
+     * and each writer's indices must grow in the order it added its values.
+     * @param threads The number of writing threads, and separately reading threads.
+     * @param addsPerThread The number of values each writer appends.
+     * @throws IllegalStateException if an index was seen unwritten or holds the wrong value.
+     */
+    private static void checkAppendVisibility(int threads, int addsPerThread) {
+        ConcurrentAppendList<Integer> list = new ConcurrentAppendList<>();
+        int total = threads * addsPerThread;
+        AtomicIntegerArray published = new AtomicIntegerArray(total); // Index of each value plus one, 0 until add returns
+        AtomicInteger unwritten = new AtomicInteger();
+        AtomicInteger misplaced = new AtomicInteger();
+        AtomicInteger writing = new AtomicInteger(threads);
+        Thread[] workers = new Thread[2 * threads];
+        for (int t = 0; t < threads; t++) {
+            int writer = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < addsPerThread; i++) {
+                    int value = writer * addsPerThread + i;
+                    published.set(value, list.add(value) + 1);
+                }
+                writing.decrementAndGet();
+            });
+            workers[threads + t] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (writing.get() > 0) {
+                    int value = random.nextInt(total);
+                    int index = published.get(value) - 1;
+                    if (index < 0) {
+                        continue;
+                    }
+                    Integer element = list.tryGet(index);
+                    if (element == null) {
+                        unwritten.incrementAndGet();
+                    } else if (element != value) {
+                        misplaced.incrementAndGet();
+                    }
+                }
+            });
+        }
+        startAndJoin(workers);
+
+        int misordered = 0;
+        for (int t = 0; t < threads; t++) {
+            int previous = -1;
+            for (int i = 0; i < addsPerThread; i++) {
+                int value = t * addsPerThread + i;
+                int index = published.get(value) - 1;
+                if (index < 0 || list.tryGet(index) == null || list.tryGet(index) != value) {
+                    misplaced.incrementAndGet();
+                }
+                misordered += index <= previous ? 1 : 0;
+                previous = index;
+            }
+        }
+        System.out.printf("  %2d threads  ConcurrentAppendList reads while writing: unwritten %d, misplaced %d, out of order %d%n",
+                threads, unwritten.get(), misplaced.get(), misordered);
+        if (list.size() != total || unwritten.get() != 0 || misplaced.get() != 0 || misordered != 0) {
+            throw new IllegalStateException("ConcurrentAppendList returned " + unwritten.get() + " unwritten and "
+                    + misplaced.get() + " misplaced indices, " + misordered + " out of order");
+        }
+    }
+
+    /**
+     * @brief Starts a group of threads and waits for all of them to finish.
+     * @param workers The threads to run.
+     */
+    private static void startAndJoin(Thread[] workers) {
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * @brief Times the instrumented hot paths and prints the collected metrics when instrumentation is on.
+     * Run once as is and once with -Dcollections.instrument=true: with the switch
+     * off, the times match a build without the instrumentation hooks.
+     * @param count The number of operations per path.
+     */
+    private static void measureInstrumentedPaths(int count) {
+        System.out.println("Instrumented paths, instrumentation " + (Instrumentation.enabled ? "enabled" : "disabled") + ":");
+        Integer value = 7;
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        MyArrayList<Integer> grown = new MyArrayList<>();
+        for (int i = 0; i < count; i++) {
+            grown.add(value);
+        }
+        System.out.printf("  %-32s %8.2f ns/op%n", "MyArrayList add", (double) (System.nanoTime() - start) / count);
+
+        MyArrayList<Integer> shifted = new MyArrayList<>();
+        shifted.addAll(Arrays.copyOf(grown.toArray(), 10_000));
+        start = System.nanoTime();
+        for (int i = 0; i < count / 10; i++) {
+            shifted.add(random.nextInt(shifted.size()), value);
+            shifted.remove(random.nextInt(shifted.size()));
+        }
+        System.out.printf("  %-32s %8.2f ns/op%n", "MyArrayList add/remove(index)", (double) (System.nanoTime() - start) / (count / 10));
+
+        MyLinkedList<Integer> linked = new MyLinkedList<>();
+        for (int i = 0; i < 1_000; i++) {
+            linked.add(value);
+        }
+        long sum = 0;
+        start = System.nanoTime();
+        for (int i = 0; i < count / 10; i++) {
+            sum += linked.get(random.nextInt(linked.size()));
+        }
+        System.out.printf("  %-32s %8.2f ns/op%n", "MyLinkedList get(index)", (double) (System.nanoTime() - start) / (count / 10));
+
+        MinHeap<Integer> heap = new MinHeap<>();
+        for (int i = 0; i < 100_000; i++) {
+            heap.insert(random.nextInt());
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            heap.insert(random.nextInt());
+            sum += heap.extractMin();
+        }
+        System.out.printf("  %-32s %8.2f ns/op%n", "MinHeap insert + extractMin", (double) (System.nanoTime() - start) / count);
+
+        MyQueue<Integer> queue = new MyQueue<>();
+        start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            queue.enqueue(value);
+            sum += queue.dequeue();
+        }
+        System.out.printf("  %-32s %8.2f ns/op  (checksum %d)%n", "MyQueue enqueue + dequeue", (double) (System.nanoTime() - start) / count, sum);
+
+        if (Instrumentation.enabled) {
+            System.out.print(Instrumentation.metrics());
+        }
+    }
+
+    /**
+     * @brief Compares the latency of single add calls on MyArrayList and SegmentedArrayList as they grow.
+     * Every add is timed on its own and counted in a power-of-two histogram.
+     * The values are cached small Integers, so the lists hold only references.
+     * @param count The number of elements added to each list.
+     */
+    private static void compareAddLatency(int count) {
+        System.out.println("Latency of single adds up to " + count + " elements:");
+        MyArrayList<Integer> array = new MyArrayList<>();
+        timeAdds("MyArrayList", count, array::add);
+        array = null;
+        SegmentedArrayList<Integer> segmented = new SegmentedArrayList<>();
+        timeAdds("SegmentedArrayList", count, segmented::add);
+    }
+
+    /**
+     * @brief Times count single adds and prints their p50, p99, p99.99 and maximum latency.
+     * @param name The name of the list type.
+     * @param count The number of adds.
+     * @param add Adds one element.
+     */
+    private static void timeAdds(String name, int count, Consumer<Integer> add) {
+        long[] histogram = new long[64];
+        long max = 0;
+        long start = System.nanoTime();
+        long previous = start;
+        for (int i = 0; i < count; i++) {
+            add.accept(i & 127);
+            long now = System.nanoTime();
+            long nanos = now - previous;
+            previous = now;
+            histogram[64 - Long.numberOfLeadingZeros(nanos)]++;
+            max = Math.max(max, nanos);
+        }
+        long total = System.nanoTime() - start;
+        System.out.printf("  %-20s p50 <= %,6d ns  p99 <= %,6d ns  p99.99 <= %,10d ns  max %,12d ns  total %,6d ms%n",
+                name, percentile(histogram, count, 50), percentile(histogram, count, 99),
+                percentile(histogram, count, 99.99), max, total / 1_000_000);
+    }
+
+    /**
+     * @brief Returns the upper end of the power-of-two bucket holding a percentile.
+     * @param histogram Bucket b counts the values v with 2^(b-1) <= v < 2^b.
+     * @param count The total number of values.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The upper bound of the percentile.
+     */
+    private static long percentile(long[] histogram, int count, double percentile) {
+        long target = (long) Math.ceil(count * percentile / 100);
+        long seen = 0;
+        for (int b = 0; b < histogram.length; b++) {
+            seen += histogram[b];
+            if (seen >= target) {
+                return (1L << b) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @brief Runs one producer/consumer measurement and verifies that every value arrived exactly once.
+     * For a FIFO structure it also verifies that every consumer receives each producer's values in
+     * the order they were sent, which a linearizable queue guarantees.
+     * @param name The name of the measured structure.
+     * @param threads The number of producer threads and of consumer threads.
+     * @param itemsPerProducer The number of values each producer sends.
+     * @param fifo true to check per-producer FIFO order.
+     * @param offer Adds a value, returning false if it has to be retried.
+     * @param poll Removes a value, returning null if none is available.
+     * @throws IllegalStateException if a value was lost, duplicated or, for FIFO structures, reordered.
+     */
+    private static void runConcurrentQueue(String name, int threads, int itemsPerProducer, boolean fifo,
+                                           Predicate<Integer> offer,
+                                           Supplier<Integer> poll) {
+        int total = threads * itemsPerProducer;
+        AtomicIntegerArray seen = new AtomicIntegerArray(total);
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger reordered = new AtomicInteger();
+        Thread[] workers = new Thread[threads * 2];
+        for (int t = 0; t < threads; t++) {
+            int first = t * itemsPerProducer;
+            workers[t] = new Thread(() -> {
+                for (int i = first; i < first + itemsPerProducer; i++) {
+                    while (!offer.test(i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            workers[threads + t] = new Thread(() -> {
+                int[] last = new int[threads]; // Last value this consumer received from each producer
+                Arrays.fill(last, -1);
+                while (received.get() < total) {
+                    Integer value = poll.get();
+                    if (value == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int producer = value / itemsPerProducer;
+                    if (fifo && value < last[producer]) {
+                        reordered.incrementAndGet();
+                    }
+                    last[producer] = Math.max(last[producer], value);
+                    seen.incrementAndGet(value);
+                    received.incrementAndGet();
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        int lost = 0;
+        int duplicated = 0;
+        for (int i = 0; i < total; i++) {
+            int count = seen.get(i);
+            if (count == 0) {
+                lost++;
+            } else if (count > 1) {
+                duplicated++;
+            }
+        }
+        System.out.printf("  %-24s %,15.0f ops/s  lost %d, duplicated %d, reordered %d%n",
+                name, total * 1e9 / nanos, lost, duplicated, reordered.get());
+        if (lost != 0 || duplicated != 0 || reordered.get() != 0) {
+            throw new IllegalStateException(name + " lost " + lost + ", duplicated " + duplicated
+                    + " and reordered " + reordered.get() + " values");
+        }
+    }
+
+    /**
+     * @brief Prints one line of throughput results.
+     * @param name The name of the measured structure.
+     * @param operations The number of operations that were run.
+     * @param nanos The elapsed time in nanoseconds.
+     * @param bytes The number of bytes allocated during the run.
+     */
+    private static void reportThroughput(String name, long operations, long nanos, long bytes) {
+        System.out.printf("  %-24s %,15.0f ops/s  %6.2f bytes/op%n", name, operations * 1e9 / nanos, (double) bytes / operations);
+    }
+
+    /**
+     * @brief Prints one line of allocation results.
+     * @param name The name of the measured structure.
+     * @param bytes The number of bytes allocated.
+     * @param count The number of elements that were added.
+     */
+    private static void report(String name, long bytes, int count) {
+        System.out.printf("  %-24s %,15d bytes  %6.2f bytes/element%n", name, bytes, (double) bytes / count);
+    }
+
+    /**
+     * @brief Returns the number of bytes allocated so far by the current thread.
+     * @return The allocated byte count.
+     */
+    static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @brief Times writing and restoring binary snapshots of a MyArrayList and a MinHeap of Long elements.
+     * The original is dropped before each restore so that only one copy of the elements is live.
+     * @param count The number of elements in each snapshot.
+     * @throws IOException if the temporary file cannot be written or read.
+     */
+    private static void compareSnapshots(int count) throws IOException {
+        System.out.println("Snapshots of " + count + " Long elements:");
+        Path file = Files.createTempFile("snapshot", ".bin");
+        try {
+            MyArrayList<Long> list = new MyArrayList<>();
+            list.ensureCapacity(count);
+            for (int i = 0; i < count; i++) {
+                list.add((long) i);
+            }
+            long start = System.nanoTime();
+            list.writeSnapshot(file, RecordCodec.LONG);
+            reportSnapshot("MyArrayList write", Files.size(file), System.nanoTime() - start);
+            list = null;
+            start = System.nanoTime();
+            list = MyArrayList.readSnapshot(file, RecordCodec.LONG);
+            reportSnapshot("MyArrayList read", Files.size(file), System.nanoTime() - start);
+            list = null;
+
+            MinHeap<Long> heap = new MinHeap<>();
+            Random random = new Random(42);
+            for (int i = 0; i < count; i++) {
+                heap.insert(random.nextLong());
+            }
+            start = System.nanoTime();
+            heap.writeSnapshot(file, RecordCodec.LONG);
+            reportSnapshot("MinHeap write", Files.size(file), System.nanoTime() - start);
+            heap = null;
+            start = System.nanoTime();
+            heap = MinHeap.readSnapshot(file, RecordCodec.LONG);
+            reportSnapshot("MinHeap read", Files.size(file), System.nanoTime() - start);
+            System.out.println("  (restored heap minimum " + heap.peek() + ")");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @brief Prints the time and bandwidth of one snapshot operation.
+     * @param name The name of the operation.
+     * @param bytes The size of the snapshot file.
+     * @param nanos The elapsed time.
+     */
+    private static void reportSnapshot(String name, long bytes, long nanos) {
+        System.out.printf("  %-24s %,8d ms %,8.0f MB/s%n", name, nanos / 1_000_000, bytes / 1e6 / (nanos / 1e9));
+    }
+
+    /**
+     * @brief Compares sorting and draining in memory against ExternalSorter and SpillingPriorityQueue.
+     * @param count The number of random Long elements.
+     * @param runSize The number of elements ExternalSorter sorts in memory per run.
+     * @param memoryLimit The number of elements SpillingPriorityQueue keeps in memory.
+     * @throws IOException if the temporary files cannot be written or read.
+     */
+    private static void compareExternalSort(int count, int runSize, int memoryLimit) throws IOException {
+        System.out.println("Sorting and draining " + count + " random Long elements:");
+        Path directory = Files.createTempDirectory("runs");
+        try {
+            Random random = new Random(42);
+            MyArrayList<Long> list = new MyArrayList<>();
+            for (int i = 0; i < count; i++) {
+                list.add(random.nextLong());
+            }
+            long start = System.nanoTime();
+            list.sort();
+            System.out.printf("  %-32s %,8d ms%n", "MyArrayList.sort", (System.nanoTime() - start) / 1_000_000);
+            list = null;
+
+            random = new Random(42);
+            long checksum = 0;
+            start = System.nanoTime();
+            try (ExternalSorter<Long> sorter = new ExternalSorter<>(directory, RecordCodec.LONG, runSize)) {
+                for (int i = 0; i < count; i++) {
+                    sorter.add(random.nextLong());
+                }
+                for (Long value : sorter) {
+                    checksum += value;
+                }
+                System.out.printf("  %-32s %,8d ms (%d runs)%n", "ExternalSorter", (System.nanoTime() - start) / 1_000_000, sorter.runCount());
+            }
+
+            random = new Random(42);
+            start = System.nanoTime();
+            MinHeap<Long> heap = new MinHeap<>();
+            for (int i = 0; i < count; i++) {
+                heap.insert(random.nextLong());
+            }
+            while (!heap.isEmpty()) {
+                checksum -= heap.extractMin();
+            }
+            System.out.printf("  %-32s %,8d ms%n", "MinHeap insert + drain", (System.nanoTime() - start) / 1_000_000);
+            heap = null;
+
+            random = new Random(42);
+            start = System.nanoTime();
+            try (SpillingPriorityQueue<Long> queue = new SpillingPriorityQueue<>(directory, RecordCodec.LONG, memoryLimit)) {
+                for (int i = 0; i < count; i++) {
+                    queue.insert(random.nextLong());
+                }
+                int runs = queue.runCount();
+                while (!queue.isEmpty()) {
+                    checksum += queue.extractMin();
+                }
+                System.out.printf("  %-32s %,8d ms (%d runs)%n", "SpillingPriorityQueue", (System.nanoTime() - start) / 1_000_000, runs);
+            }
+            System.out.println("  (checksum " + checksum + ")");
+        } finally {
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    /**
+     * @brief Compares finding the k largest elements with a full MinHeap against TopK, sequentially and in a parallel stream.
+     * @param count The number of random Long elements in the stream.
+     * @param k The number of elements to keep.
+     */
+    private static void compareTopK(int count, int k) {
+        System.out.println("Top " + k + " of " + count + " random Long elements:");
+        Random random = new Random(42);
+        long before = allocatedBytes();
+        long start = System.nanoTime();
+        MinHeap<Long> heap = new MinHeap<>();
+        for (int i = 0; i < count; i++) {
+            heap.insert(-random.nextLong()); // Negated, so the largest come out first
+        }
+        long largest = -heap.peek();
+        for (int i = 0; i < k; i++) {
+            heap.extractMin();
+        }
+        System.out.printf("  %-24s %,8d ms %,14d bytes allocated%n", "MinHeap of everything",
+                (System.nanoTime() - start) / 1_000_000, allocatedBytes() - before);
+        heap = null;
+
+        random = new Random(42);
+        before = allocatedBytes();
+        start = System.nanoTime();
+        TopK<Long> top = new TopK<>(k);
+        for (int i = 0; i < count; i++) {
+            top.offer(random.nextLong());
+        }
+        System.out.printf("  %-24s %,8d ms %,14d bytes allocated%n", "TopK",
+                (System.nanoTime() - start) / 1_000_000, allocatedBytes() - before);
+
+        start = System.nanoTime();
+        TopK<Long> parallel = new Random(42).longs(count).parallel().boxed().collect(TopK.collector(k));
+        System.out.printf("  %-24s %,8d ms%n", "TopK.collector parallel", (System.nanoTime() - start) / 1_000_000);
+        System.out.println("  (largest " + largest + " / " + top.toSortedList().getFirst() + ", parallel kept "
+                + parallel.size() + ")");
+    }
+}
@@ -0,0 +1,26 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+
+/**
+ * @brief The JDK Flight Recorder event emitted for each instrumented measurement.
+ * It is disabled by default. Enable it in a recording, for example with
+ * -XX:StartFlightRecording:collections.Measurement#enabled=true, to see where
+ * reallocations, large shifts or long walks happen, with stack traces.
+ */
+@Name("collections.Measurement")
+@Label("Collection Measurement")
+@Category("Collections")
+@Description("A measurement taken on an instrumented collection path")
+@StackTrace(true)
+class CollectionEvent extends Event {
+    @Label("Metric")
+    String metric;
+
+    @Label("Value")
+    long value;
+}
@@ -0,0 +1,25 @@
+/**
+ * @brief Receives the measurements taken by the instrumented collection paths.
+ * Measurements are only taken when the JVM is started with
+ * -Dcollections.instrument=true; see Instrumentation. Implementations are called
+ * from any thread that uses a collection and must be thread-safe.
+ */
+public interface CollectionMetrics {
+    /**
+     * @brief The measured quantities.
+     */
+    enum Metric {
+        CAPACITY_GROWTH, // New capacity in elements, once per MyArrayList reallocation
+        BYTES_MOVED, // Bytes shifted by System.arraycopy in a MyArrayList insert or remove
+        NODES_WALKED, // Nodes visited by one MyLinkedList.getNode call
+        SIFT_DEPTH, // Levels descended by one MinHeap.heapifyDown call
+        QUEUE_DEPTH // MyQueue size after an enqueue
+    }
+
+    /**
+     * @brief Records one measurement.
+     * @param metric The measured quantity.
+     * @param value The measured value.
+     */
+    void record(Metric metric, long value);
+}
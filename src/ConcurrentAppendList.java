@@ -0,0 +1,198 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+
+/**
+ * @brief An append-only list that many threads can add to without locking.
+ * add reserves the next index with one atomic increment and then writes the
+ * element into its slot, so concurrent appenders never wait for each other.
+ * The slots live in segments that double in size (32, 64, 128, ...) and are
+ * never moved, so growing the list never copies elements and a reader never
+ * sees a half-copied array. A segment is allocated by the first thread that
+ * needs it, with a compare-and-set on the segment directory.
+ *
+ * An index becomes visible to size() as soon as it is reserved. If get reaches
+ * a slot whose writer has not finished yet, it waits for that write. Null
+ * elements are not allowed, since null marks an unwritten slot.
+ */
+public class ConcurrentAppendList<T> implements Iterable<T> {
+    private static final VarHandle RESERVED;
+    private static final VarHandle SEGMENT = MethodHandles.arrayElementVarHandle(Object[][].class);
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int first_bits = 5; // The first segment holds 2^first_bits slots
+    private static final int max_size = Integer.MAX_VALUE - (1 << first_bits);
+
+    static {
+        try {
+            RESERVED = MethodHandles.lookup().findVarHandle(ConcurrentAppendList.class, "reserved", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Object[][] segments = new Object[32 - first_bits][]; // Segment k holds 2^(k + first_bits) slots
+    private volatile int reserved; // Number of indices handed out to appenders
+
+    /**
+     * @brief Constructs an empty list.
+     */
+    public ConcurrentAppendList() {
+    }
+
+    /**
+     * @brief Returns the segment number holding an index.
+     * @param index The index.
+     * @return The segment number.
+     */
+    private static int segmentOf(int index) {
+        int position = index + (1 << first_bits);
+        return 31 - Integer.numberOfLeadingZeros(position) - first_bits;
+    }
+
+    /**
+     * @brief Returns the slot of an index inside its segment.
+     * @param index The index.
+     * @param segment The segment number holding the index.
+     * @return The slot number.
+     */
+    private static int slotOf(int index, int segment) {
+        return index + (1 << first_bits) - (1 << (segment + first_bits));
+    }
+
+    /**
+     * @brief Returns a segment, allocating it if no thread has done so yet.
+     * @param segment The segment number.
+     * @return The segment array.
+     */
+    private Object[] segment(int segment) {
+        Object[] array = (Object[]) SEGMENT.getAcquire(segments, segment);
+        if (array != null) {
+            return array;
+        }
+        Object[] created = new Object[1 << (segment + first_bits)];
+        Object[] witness = (Object[]) SEGMENT.compareAndExchange(segments, segment, null, created);
+        return witness == null ? created : witness; // Another thread may have won the race
+    }
+
+    /**
+     * @brief Appends an element.
+     * @param element The element to add.
+     * @return The index the element was stored at.
+     * @throws NullPointerException if the element is null.
+     * @throws IllegalStateException if the list is full.
+     */
+    public int add(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        int index = (int) RESERVED.getAndAdd(this, 1);
+        if (index < 0 || index >= max_size) {
+            RESERVED.getAndAdd(this, -1);
+            throw new IllegalStateException("List is too large");
+        }
+        int segment = segmentOf(index);
+        SLOT.setRelease(segment(segment), slotOf(index, segment), element);
+        return index;
+    }
+
+    /**
+     * @brief Returns the number of reserved indices. Elements being written are counted.
+     * @return The size of the list.
+     */
+    public int size() {
+        return Math.min(reserved, max_size);
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if no element has been added, otherwise false.
+     */
+    public boolean isEmpty() {
+        return reserved == 0;
+    }
+
+    /**
+     * @brief Retrieves the element at an index, waiting for its writer to finish if needed.
+     * @param index The index to get the element from.
+     * @return The element at the index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int segment = segmentOf(index);
+        Object[] array = segment(segment);
+        int slot = slotOf(index, segment);
+        Object element;
+        while ((element = SLOT.getAcquire(array, slot)) == null) {
+            Thread.onSpinWait(); // The index is reserved but not yet written
+        }
+        return (T) element;
+    }
+
+    /**
+     * @brief Retrieves the element at an index without waiting for its writer.
+     * Once add has returned an index, every thread that learns of that index sees the element here.
+     * @param index The index to get the element from.
+     * @return The element at the index, or null if the index is reserved but not yet written.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T tryGet(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        int segment = segmentOf(index);
+        Object[] array = (Object[]) SEGMENT.getAcquire(segments, segment);
+        return array == null ? null : (T) SLOT.getAcquire(array, slotOf(index, segment));
+    }
+
+    /**
+     * @brief Copies the first size() elements to an array.
+     * @return An array containing the elements.
+     */
+    public Object[] toArray() {
+        int count = size();
+        Object[] array = new Object[count];
+        for (int i = 0; i < count; i++) {
+            array[i] = get(i);
+        }
+        return array;
+    }
+
+    /**
+     * @brief Performs an action for each element added before the call.
+     * @param action The action to perform.
+     */
+    public void forEach(Consumer<? super T> action) {
+        int count = size();
+        for (int i = 0; i < count; i++) {
+            action.accept(get(i));
+        }
+    }
+
+    /**
+     * @brief Returns an iterator over the elements added before the call. It never fails.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        int count = size();
+        return new Iterator<T>() {
+            private int index = 0;
+
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            public T next() {
+                if (index >= count) {
+                    throw new NoSuchElementException();
+                }
+                return get(index++);
+            }
+        };
+    }
+}
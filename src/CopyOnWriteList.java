@@ -0,0 +1,366 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * @brief A thread-safe MyList for read-mostly data, using copy-on-write.
+ * The elements live in an exact-size array published through a volatile field.
+ * A published array is never written again, so get, indexOf and iteration read
+ * one snapshot without locking or waiting, and iterators never fail.
+ *
+ * Writers take a lock, copy the array, change the copy and publish it. Each
+ * single mutation therefore costs O(n); update() applies a whole batch of
+ * mutations to one working copy and publishes it with a single swap.
+ */
+public class CopyOnWriteList<T> implements MyList<T> {
+    private static final Object[] empty = new Object[0];
+
+    private final ReentrantLock lock = new ReentrantLock(); // Serializes writers only
+    private volatile Object[] array = empty; // Published snapshot, never written after publication
+
+    /**
+     * @brief Constructs an empty list.
+     */
+    public CopyOnWriteList() {
+    }
+
+    /**
+     * @brief Constructs a list holding the elements of another list.
+     * @param list The list to copy.
+     */
+    public CopyOnWriteList(MyList<? extends T> list) {
+        array = list.toArray();
+    }
+
+    /**
+     * @brief Applies a batch of mutations to a working copy and publishes it with one array swap.
+     * Readers see either none or all of the batch. If the mutation throws, nothing is published.
+     * @param mutation Changes a MyArrayList holding the current elements.
+     */
+    public void update(Consumer<? super MyArrayList<T>> mutation) {
+        lock.lock();
+        try {
+            MyArrayList<T> working = new MyArrayList<>();
+            working.addAll(array);
+            mutation.accept(working);
+            array = working.toArray();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Returns the current elements as an immutable list. No copy is made.
+     * @return An immutable view of the current snapshot.
+     */
+    public ImmutableList<T> snapshot() {
+        return new ImmutableList<>(array);
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return array.length == 0;
+    }
+
+    /**
+     * @brief Returns the size of the list.
+     * @return The number of elements in the current snapshot.
+     */
+    public int size() {
+        return array.length;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        lock.lock();
+        try {
+            Object[] current = array;
+            Object[] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = item;
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Sets the value at a specific index.
+     * @param index The index to set the item at.
+     * @param item The item to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, T item) {
+        lock.lock();
+        try {
+            Object[] current = array;
+            if (index < 0 || index >= current.length) {
+                throw new IndexOutOfBoundsException("Index out of bounds");
+            }
+            Object[] next = current.clone();
+            next[index] = item;
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Inserts an item at a specific index.
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void add(int index, T item) {
+        lock.lock();
+        try {
+            Object[] current = array;
+            if (index < 0 || index > current.length) {
+                throw new IndexOutOfBoundsException("Index out of bounds");
+            }
+            Object[] next = new Object[current.length + 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index, next, index + 1, current.length - index);
+            next[index] = item;
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index without locking.
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        Object[] current = array;
+        if (index < 0 || index >= current.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return (T) current[index];
+    }
+
+    /**
+     * @brief Gets the first item in the list.
+     * @return The first item.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getFirst() {
+        Object[] current = array;
+        if (current.length == 0) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) current[0];
+    }
+
+    /**
+     * @brief Gets the last item in the list.
+     * @return The last item.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        Object[] current = array;
+        if (current.length == 0) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) current[current.length - 1];
+    }
+
+    /**
+     * @brief Removes the item at a specific index.
+     * @param index The index to remove the item from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        lock.lock();
+        try {
+            Object[] current = array;
+            if (index < 0 || index >= current.length) {
+                throw new IndexOutOfBoundsException("Index out of bounds");
+            }
+            Object[] next = new Object[current.length - 1];
+            System.arraycopy(current, 0, next, 0, index);
+            System.arraycopy(current, index + 1, next, index, current.length - index - 1);
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeFirst() {
+        lock.lock();
+        try {
+            if (array.length == 0) {
+                throw new IllegalStateException("List is empty");
+            }
+            remove(0);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        lock.lock();
+        try {
+            if (array.length == 0) {
+                throw new IllegalStateException("List is empty");
+            }
+            remove(array.length - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Sorts a copy of the elements in natural order and publishes it.
+     * @throws ClassCastException if the elements are not mutually comparable.
+     */
+    public void sort() {
+        lock.lock();
+        try {
+            Object[] next = array.clone();
+            Arrays.sort(next);
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Removes every element matching a predicate and publishes the result once.
+     * @param filter The predicate selecting the elements to remove.
+     * @return true if any element was removed.
+     */
+    public boolean removeIf(Predicate<? super T> filter) {
+        lock.lock();
+        try {
+            Object[] current = array;
+            Object[] next = new Object[current.length];
+            int kept = 0;
+            for (Object element : current) {
+                if (!filter.test((T) element)) {
+                    next[kept++] = element;
+                }
+            }
+            if (kept == current.length) {
+                return false;
+            }
+            array = Arrays.copyOf(next, kept);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Replaces each element with the result of applying an operator to it, publishing the result once.
+     * @param operator The operator to apply.
+     */
+    public void replaceAll(UnaryOperator<T> operator) {
+        lock.lock();
+        try {
+            Object[] next = array.clone();
+            for (int i = 0; i < next.length; i++) {
+                next[i] = operator.apply((T) next[i]);
+            }
+            array = next;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Finds the first position of an object in the current snapshot.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        return ImmutableList.indexOf(array, object);
+    }
+
+    /**
+     * @brief Finds the last position of an object in the current snapshot.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        return ImmutableList.lastIndexOf(array, object);
+    }
+
+    /**
+     * @brief Checks if an object exists in the current snapshot.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Copies the current snapshot to a new array.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        Object[] current = array;
+        return Arrays.copyOf(current, current.length);
+    }
+
+    /**
+     * @brief Removes all elements.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            array = empty;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Performs an action for each element of the current snapshot.
+     * @param action The action to perform.
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (Object element : array) {
+            action.accept((T) element);
+        }
+    }
+
+    /**
+     * @brief Returns an iterator over the snapshot taken when it is created. Later writes are not seen.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return ImmutableList.iterator(array);
+    }
+
+    /**
+     * @brief Returns a spliterator over the snapshot taken when it is created.
+     * @return An IMMUTABLE, SIZED and SUBSIZED spliterator.
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(array, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+}
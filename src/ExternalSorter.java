@@ -0,0 +1,274 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * @brief Sorts more elements than fit in memory, using temporary files on local disk.
+ * Added elements collect in a MyArrayList of at most runSize elements. When it
+ * is full it is sorted with MyArrayList.sort and spilled to a run file. Reading
+ * the result merges the runs k ways: a MinHeap holds one cursor per run, ordered
+ * by the cursor's current element, so the smallest pending element is always on
+ * top. Each cursor reads its run through its own buffer, so the merge only does
+ * large sequential reads and one sequential write per pass.
+ *
+ * When there are more runs than max_fan_in, groups of runs are merged into
+ * longer runs first, so the number of open files and buffers stays bounded. If
+ * nothing was spilled, the elements are sorted in memory and never touch disk.
+ * Elements must be encodable by the codec; null is not allowed.
+ */
+public class ExternalSorter<T extends Comparable<T>> implements Iterable<T>, AutoCloseable {
+    private static final int max_fan_in = 64; // Runs merged at once
+    private static final int merge_buffer_bytes = 32 << 20; // Read buffers of one merge, split between its runs
+    private static final int min_run_buffer = 64 << 10; // Smallest read buffer per run
+    private static final int write_buffer_bytes = 1 << 20;
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final int runSize;
+    private MyArrayList<T> buffer = new MyArrayList<>();
+    private MyArrayList<SortedRun<T>> runs = new MyArrayList<>();
+    private final MyArrayList<SortedRun.Cursor<T>> openCursors = new MyArrayList<>();
+    private MinHeap<SortedRun.Cursor<T>> merging; // Cursors the iterator reads from, null before reading and after close
+    private long size;
+    private boolean reading; // Set once the sorted result has been requested
+
+    /**
+     * @brief Constructs an empty sorter.
+     * @param directory The local directory for the run files.
+     * @param codec The codec that converts elements to fixed-width records.
+     * @param runSize The number of elements sorted in memory before they are spilled.
+     * @throws IllegalArgumentException if runSize is not positive.
+     */
+    public ExternalSorter(Path directory, RecordCodec<T> codec, int runSize) {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("Run size must be positive");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.runSize = runSize;
+    }
+
+    /**
+     * @brief Returns the number of elements added.
+     * @return The number of elements.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of runs spilled to disk so far.
+     * @return The number of run files.
+     */
+    public int runCount() {
+        return runs.size();
+    }
+
+    /**
+     * @brief Adds an element, spilling a sorted run when the in-memory buffer is full.
+     * @param element The element to add.
+     * @throws NullPointerException if the element is null.
+     * @throws IllegalStateException if the sorted result has already been requested.
+     * @throws UncheckedIOException if a run cannot be written.
+     */
+    public void add(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        if (reading) {
+            throw new IllegalStateException("Sorter is already being read");
+        }
+        buffer.add(element);
+        size++;
+        if (buffer.size() == runSize) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @brief Sorts the buffered elements and writes them as a new run.
+     * @throws IOException if the run cannot be written.
+     */
+    private void spill() throws IOException {
+        buffer.sort();
+        SortedRun<T> run;
+        try (SortedRun.Writer<T> writer = new SortedRun.Writer<>(directory, codec, write_buffer_bytes)) {
+            for (T element : buffer) {
+                writer.add(element); // The iterator reads the backing array, so the run is never copied
+            }
+            run = writer.finish();
+        }
+        runs.add(run);
+        buffer.clear();
+    }
+
+    /**
+     * @brief Opens a cursor on every run and puts the non-empty ones in a heap.
+     * @param group The runs to open.
+     * @return A heap of cursors positioned on their first elements.
+     * @throws IOException if a run cannot be read.
+     */
+    private MinHeap<SortedRun.Cursor<T>> openAll(MyList<SortedRun<T>> group) throws IOException {
+        int bufferBytes = Math.max(min_run_buffer, merge_buffer_bytes / Math.max(1, group.size()));
+        MinHeap<SortedRun.Cursor<T>> heap = new MinHeap<>();
+        for (int i = 0; i < group.size(); i++) {
+            SortedRun.Cursor<T> cursor = group.get(i).open(bufferBytes, i);
+            if (cursor != null) {
+                openCursors.add(cursor);
+                heap.insert(cursor);
+            }
+        }
+        return heap;
+    }
+
+    /**
+     * @brief Merges groups of max_fan_in runs into longer runs until one merge can take them all.
+     * If a merge fails, runs keeps the runs merged so far and the ones not yet merged, so close() deletes every file.
+     * @throws IOException if a run cannot be read or written.
+     */
+    private void reduceRuns() throws IOException {
+        while (runs.size() > max_fan_in) {
+            MyArrayList<SortedRun<T>> merged = new MyArrayList<>();
+            int from = 0;
+            try {
+                for (; from < runs.size(); from += max_fan_in) {
+                    MyArrayList<SortedRun<T>> group = new MyArrayList<>();
+                    for (int i = from; i < Math.min(from + max_fan_in, runs.size()); i++) {
+                        group.add(runs.get(i));
+                    }
+                    merged.add(mergeGroup(group));
+                }
+            } catch (IOException | RuntimeException e) {
+                for (int i = from; i < runs.size(); i++) {
+                    merged.add(runs.get(i)); // The failed group's runs are still intact
+                }
+                runs = merged;
+                throw e;
+            }
+            runs = merged;
+        }
+    }
+
+    /**
+     * @brief Merges a group of runs into one new run and deletes the old run files.
+     * @param group The runs to merge.
+     * @return The merged run.
+     * @throws IOException if a run cannot be read or written.
+     */
+    private SortedRun<T> mergeGroup(MyList<SortedRun<T>> group) throws IOException {
+        if (group.size() == 1) {
+            return group.get(0);
+        }
+        MinHeap<SortedRun.Cursor<T>> heap = openAll(group);
+        SortedRun<T> merged;
+        try (SortedRun.Writer<T> writer = new SortedRun.Writer<>(directory, codec, write_buffer_bytes)) {
+            while (!heap.isEmpty()) {
+                SortedRun.Cursor<T> cursor = heap.peek();
+                writer.add(cursor.head());
+                if (cursor.advance()) {
+                    heap.replaceTop(cursor); // The new head sinks in one pass
+                } else {
+                    heap.extractMin();
+                }
+            }
+            merged = writer.finish();
+        }
+        openCursors.clear(); // All cursors of the group are exhausted and closed
+        for (SortedRun<T> run : group) {
+            run.delete();
+        }
+        return merged;
+    }
+
+    /**
+     * @brief Returns the elements in ascending order. After this call no more elements can be added.
+     * Equal elements come out in the order they were added. The iterator can be requested only once
+     * when runs were spilled, because it consumes them; call close() afterwards to delete the run files.
+     * @return An iterator over the sorted elements.
+     * @throws IllegalStateException if the spilled runs have already been consumed.
+     * @throws UncheckedIOException if a run cannot be read or written.
+     */
+    public Iterator<T> iterator() {
+        if (runs.size() == 0) {
+            if (!reading) {
+                reading = true;
+                buffer.sort(); // Nothing was spilled, so the whole sort stays in memory
+            }
+            return buffer.iterator();
+        }
+        if (reading) {
+            throw new IllegalStateException("Sorted runs have already been consumed");
+        }
+        reading = true;
+        try {
+            if (buffer.size() != 0) {
+                spill();
+            }
+            buffer = new MyArrayList<>();
+            reduceRuns();
+            merging = openAll(runs);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Iterator<T>() {
+            public boolean hasNext() {
+                return !merged().isEmpty();
+            }
+
+            public T next() {
+                MinHeap<SortedRun.Cursor<T>> heap = merged();
+                if (heap.isEmpty()) {
+                    throw new NoSuchElementException();
+                }
+                SortedRun.Cursor<T> cursor = heap.peek();
+                T element = cursor.head();
+                try {
+                    if (cursor.advance()) {
+                        heap.replaceTop(cursor); // The new head sinks in one pass
+                    } else {
+                        heap.extractMin();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return element;
+            }
+        };
+    }
+
+    /**
+     * @brief Returns the heap of cursors the sorted result is read from.
+     * @return The heap of cursors.
+     * @throws IllegalStateException if the sorter has been closed.
+     */
+    private MinHeap<SortedRun.Cursor<T>> merged() {
+        if (merging == null) {
+            throw new IllegalStateException("Sorter is closed");
+        }
+        return merging;
+    }
+
+    /**
+     * @brief Closes every open run and deletes all run files. An iterator over spilled runs fails afterwards.
+     * @throws IOException if a file cannot be closed or deleted.
+     */
+    public void close() throws IOException {
+        merging = null;
+        for (SortedRun.Cursor<T> cursor : openCursors) {
+            cursor.close();
+        }
+        openCursors.clear();
+        for (SortedRun<T> run : runs) {
+            run.delete();
+        }
+        runs.clear();
+        buffer.clear();
+    }
+}
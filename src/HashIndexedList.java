@@ -0,0 +1,350 @@
+import java.util.HashMap;
+import java.util.Iterator;
+
+
+/**
+ * @brief A MyList wrapper that keeps a hash index from each value to its positions.
+ * exists is always expected O(1), and indexOf/lastIndexOf are expected O(1) too.
+ * Appends, removeLast and set update the index in place. An insert or removal in
+ * the middle of the list, or a sort, moves the positions of every later element,
+ * so the positions are rebuilt in one O(n) pass the next time they are needed.
+ * Occurrence counts are kept exact at all times, so exists never waits for a rebuild.
+ *
+ * The index costs one HashMap entry plus a small position list per distinct
+ * value (roughly 100 bytes on a 64-bit JVM) and 4 bytes per element on top of the
+ * wrapped list. Benchmarks measures the bytes allocated while building it.
+ */
+public class HashIndexedList<T> implements MyList<T> {
+    /**
+     * @brief The index data for one distinct value.
+     */
+    private static final class Entry {
+        int count; // Number of occurrences, always exact
+        final IntArrayList positions = new IntArrayList(1); // Ascending positions, valid unless the index is stale
+    }
+
+    private final MyList<T> list;
+    private final HashMap<Object, Entry> index = new HashMap<>();
+    private boolean stale; // true when positions must be rebuilt before use
+
+    /**
+     * @brief Constructs an empty indexed list backed by a MyArrayList.
+     */
+    public HashIndexedList() {
+        this(new MyArrayList<>());
+    }
+
+    /**
+     * @brief Wraps a list and indexes the elements it already holds.
+     * The list must only be changed through this wrapper from now on.
+     * @param list The list to index.
+     */
+    public HashIndexedList(MyList<T> list) {
+        this.list = list;
+        for (Object element : list.toArray()) {
+            index.computeIfAbsent(element, key -> new Entry()).count++;
+        }
+        stale = list.size() > 0;
+    }
+
+    /**
+     * @brief Recomputes every position list with one pass over the elements.
+     */
+    private void rebuildPositions() {
+        for (Entry entry : index.values()) {
+            entry.positions.clear();
+        }
+        Object[] elements = list.toArray(); // One walk, also for linked lists
+        for (int i = 0; i < elements.length; i++) {
+            index.get(elements[i]).positions.add(i);
+        }
+        stale = false;
+    }
+
+    /**
+     * @brief Counts a new occurrence of a value, recording its position while the index is fresh.
+     * @param item The value that was added.
+     * @param position The position it was added at.
+     */
+    private void addOccurrence(T item, int position) {
+        Entry entry = index.computeIfAbsent(item, key -> new Entry());
+        entry.count++;
+        if (!stale) {
+            insertSorted(entry.positions, position);
+        }
+    }
+
+    /**
+     * @brief Removes one occurrence of a value, dropping its position while the index is fresh.
+     * @param item The value that was removed.
+     * @param position The position it was removed from.
+     */
+    private void removeOccurrence(T item, int position) {
+        Entry entry = index.get(item);
+        if (--entry.count == 0) {
+            index.remove(item);
+            return;
+        }
+        if (!stale) {
+            IntArrayList positions = entry.positions;
+            if (positions.getLast() == position) {
+                positions.removeLast(); // The common case for removeLast
+            } else {
+                positions.remove(binarySearch(positions, position));
+            }
+        }
+    }
+
+    /**
+     * @brief Inserts a position into an ascending position list.
+     * @param positions The list to insert into.
+     * @param position The position to insert.
+     */
+    private static void insertSorted(IntArrayList positions, int position) {
+        if (positions.isEmpty() || positions.getLast() < position) {
+            positions.add(position); // Appends stay O(1)
+        } else {
+            int slot = binarySearch(positions, position);
+            positions.add(slot < 0 ? -(slot + 1) : slot, position);
+        }
+    }
+
+    /**
+     * @brief Finds a position in an ascending position list.
+     * @param positions The list to search.
+     * @param position The position to find.
+     * @return The index of the position, or -(insertion point) - 1 if it is not present.
+     */
+    private static int binarySearch(IntArrayList positions, int position) {
+        int low = 0;
+        int high = positions.size() - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int value = positions.get(middle);
+            if (value < position) {
+                low = middle + 1;
+            } else if (value > position) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * @brief Adds an item to the end of the list.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        list.add(item);
+        addOccurrence(item, list.size() - 1);
+    }
+
+    /**
+     * @brief Sets the value at a specific index.
+     * @param index The index to set the item at.
+     * @param item The item to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, T item) {
+        T old = list.get(index);
+        list.set(index, item);
+        removeOccurrence(old, index);
+        addOccurrence(item, index);
+    }
+
+    /**
+     * @brief Inserts an item at a specific index. Inserting before the end marks the positions stale.
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void add(int index, T item) {
+        if (index == list.size()) {
+            add(item);
+            return;
+        }
+        list.add(index, item);
+        stale = true;
+        addOccurrence(item, index);
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to retrieve the item from.
+     * @return The item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        return list.get(index);
+    }
+
+    /**
+     * @brief Retrieves the first item in the list.
+     * @return The first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getFirst() {
+        return list.getFirst();
+    }
+
+    /**
+     * @brief Retrieves the last item in the list.
+     * @return The last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        return list.getLast();
+    }
+
+    /**
+     * @brief Removes the item at a specific index. Removing before the end marks the positions stale.
+     * @param index The index to remove the item from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        T old = list.get(index);
+        boolean last = index == list.size() - 1;
+        list.remove(index);
+        if (!last) {
+            stale = true;
+        }
+        removeOccurrence(old, index);
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeFirst() {
+        if (list.size() == 0) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        if (list.size() == 0) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(list.size() - 1);
+    }
+
+    /**
+     * @brief Sorts the wrapped list and marks the positions stale.
+     */
+    public void sort() {
+        list.sort();
+        stale = true;
+    }
+
+    /**
+     * @brief Returns the first position of an object from the index.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        Entry entry = index.get(object);
+        if (entry == null) {
+            return -1;
+        }
+        if (stale) {
+            rebuildPositions();
+        }
+        return entry.positions.getFirst();
+    }
+
+    /**
+     * @brief Returns the last position of an object from the index.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        Entry entry = index.get(object);
+        if (entry == null) {
+            return -1;
+        }
+        if (stale) {
+            rebuildPositions();
+        }
+        return entry.positions.getLast();
+    }
+
+    /**
+     * @brief Checks if an object exists in the list with a single hash lookup.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return index.containsKey(object);
+    }
+
+    /**
+     * @brief Converts the list to an array.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        return list.toArray();
+    }
+
+    /**
+     * @brief Clears all elements from the list and the index.
+     */
+    public void clear() {
+        list.clear();
+        index.clear();
+        stale = false;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return list.size();
+    }
+
+    /**
+     * @brief Returns an iterator over the wrapped list.
+     * remove() goes through the wrapped iterator and updates the index like remove(index) does;
+     * it throws UnsupportedOperationException if the wrapped iterator cannot remove.
+     * @return An iterator over the elements in order.
+     */
+    public Iterator<T> iterator() {
+        Iterator<T> it = list.iterator();
+        return new Iterator<T>() {
+            private int next = 0; // Position of the element next() returns
+            private T lastReturned;
+            private boolean canRemove;
+
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            public T next() {
+                lastReturned = it.next();
+                next++;
+                canRemove = true;
+                return lastReturned;
+            }
+
+            public void remove() {
+                if (!canRemove) {
+                    throw new IllegalStateException();
+                }
+                it.remove();
+                canRemove = false;
+                next--;
+                if (next != list.size()) {
+                    stale = true; // Every later position moved down by one
+                }
+                removeOccurrence(lastReturned, next);
+            }
+        };
+    }
+}
@@ -0,0 +1,108 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * @brief The default CollectionMetrics: a counter, a sum and a power-of-two histogram per metric.
+ * Bucket b of a histogram counts the values v with 2^(b-1) <= v < 2^b, and
+ * bucket 0 counts zeros. Counters and sums are LongAdders, so threads recording
+ * at the same time do not contend on one cache line.
+ */
+public class HistogramMetrics implements CollectionMetrics {
+    private static final int bucket_count = 64;
+
+    private final LongAdder[] counts = new LongAdder[Metric.values().length];
+    private final LongAdder[] sums = new LongAdder[Metric.values().length];
+    private final AtomicLongArray[] histograms = new AtomicLongArray[Metric.values().length];
+
+    /**
+     * @brief Constructs empty counters for every metric.
+     */
+    public HistogramMetrics() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+            sums[i] = new LongAdder();
+            histograms[i] = new AtomicLongArray(bucket_count);
+        }
+    }
+
+    /**
+     * @brief Records one measurement.
+     * @param metric The measured quantity.
+     * @param value The measured value, not negative.
+     */
+    public void record(Metric metric, long value) {
+        int i = metric.ordinal();
+        counts[i].increment();
+        sums[i].add(value);
+        histograms[i].incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+    }
+
+    /**
+     * @brief Returns the number of measurements of a metric.
+     * @param metric The metric.
+     * @return The count.
+     */
+    public long count(Metric metric) {
+        return counts[metric.ordinal()].sum();
+    }
+
+    /**
+     * @brief Returns the sum of the measurements of a metric.
+     * @param metric The metric.
+     * @return The sum.
+     */
+    public long sum(Metric metric) {
+        return sums[metric.ordinal()].sum();
+    }
+
+    /**
+     * @brief Returns an upper bound of a percentile of a metric, from its histogram.
+     * @param metric The metric.
+     * @param percentile The percentile, from 0 to 100.
+     * @return The upper end of the histogram bucket holding the percentile, or 0 if nothing was recorded.
+     */
+    public long percentile(Metric metric, double percentile) {
+        AtomicLongArray histogram = histograms[metric.ordinal()];
+        long total = 0;
+        for (int b = 0; b < bucket_count; b++) {
+            total += histogram.get(b);
+        }
+        long target = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int b = 0; b < bucket_count; b++) {
+            seen += histogram.get(b);
+            if (seen >= Math.max(1, target) && histogram.get(b) > 0) {
+                return b == 0 ? 0 : (1L << b) - 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @brief Clears every counter and histogram.
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].reset();
+            sums[i].reset();
+            for (int b = 0; b < bucket_count; b++) {
+                histograms[i].set(b, 0);
+            }
+        }
+    }
+
+    /**
+     * @brief Formats one line per metric with its count, mean, p50 and p99.
+     * @return The summary.
+     */
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        for (Metric metric : Metric.values()) {
+            long count = count(metric);
+            builder.append(String.format("%-16s count %,14d  mean %,12.1f  p50 <= %,d  p99 <= %,d%n", metric, count,
+                    count == 0 ? 0.0 : (double) sum(metric) / count, percentile(metric, 50), percentile(metric, 99)));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,244 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * @brief An immutable MyList over an exact-size array.
+ * The array is never written after construction, so any number of threads can
+ * read the list without locking once it has been safely published. Every
+ * mutating method throws UnsupportedOperationException. Instances come from
+ * MyArrayList.freeze() and CopyOnWriteList.snapshot().
+ */
+public class ImmutableList<T> implements MyList<T> {
+    private final Object[] elements; // Exact size, never written after construction
+
+    /**
+     * @brief Wraps an array without copying it. The caller must never write to the array again.
+     * @param elements The elements of the list.
+     */
+    ImmutableList(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * @brief Creates the exception thrown by every mutating method.
+     * @return The exception to throw.
+     */
+    private static UnsupportedOperationException immutable() {
+        return new UnsupportedOperationException("List is immutable");
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return elements.length == 0;
+    }
+
+    /**
+     * @brief Returns the size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return elements.length;
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= elements.length) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return (T) elements[index];
+    }
+
+    /**
+     * @brief Gets the first item in the list.
+     * @return The first item.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) elements[0];
+    }
+
+    /**
+     * @brief Gets the last item in the list.
+     * @return The last item.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) elements[elements.length - 1];
+    }
+
+    /**
+     * @brief Finds the first position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        return indexOf(elements, object);
+    }
+
+    /**
+     * @brief Finds the first position of an object in an array.
+     * @param array The array to search.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the array.
+     */
+    static int indexOf(Object[] array, Object object) {
+        for (int i = 0; i < array.length; i++) {
+            if (object.equals(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        return lastIndexOf(elements, object);
+    }
+
+    /**
+     * @brief Finds the last position of an object in an array.
+     * @param array The array to search.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the array.
+     */
+    static int lastIndexOf(Object[] array, Object object) {
+        for (int i = array.length - 1; i >= 0; i--) {
+            if (object.equals(array[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the list.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Copies the list to a new array.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, elements.length);
+    }
+
+    /**
+     * @brief Performs an action for each element.
+     * @param action The action to perform.
+     */
+    public void forEach(Consumer<? super T> action) {
+        for (Object element : elements) {
+            action.accept((T) element);
+        }
+    }
+
+    /**
+     * @brief Returns an iterator over the elements. It never fails, since the list cannot change.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return iterator(elements);
+    }
+
+    /**
+     * @brief Returns a read-only iterator over an array.
+     * @param array The array to iterate over.
+     * @return An iterator over the array.
+     */
+    static <E> Iterator<E> iterator(Object[] array) {
+        return new Iterator<E>() {
+            private int cursor = 0;
+
+            public boolean hasNext() {
+                return cursor < array.length;
+            }
+
+            public E next() {
+                if (cursor >= array.length) {
+                    throw new NoSuchElementException();
+                }
+                return (E) array[cursor++];
+            }
+        };
+    }
+
+    /**
+     * @brief Returns a spliterator over the array that splits in half.
+     * @return An IMMUTABLE, SIZED and SUBSIZED spliterator.
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(elements, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    // Every mutating method of MyList throws
+
+    public void add(T item) {
+        throw immutable();
+    }
+
+    public void set(int index, T item) {
+        throw immutable();
+    }
+
+    public void add(int index, T item) {
+        throw immutable();
+    }
+
+    public void remove(int index) {
+        throw immutable();
+    }
+
+    public void removeFirst() {
+        throw immutable();
+    }
+
+    public void removeLast() {
+        throw immutable();
+    }
+
+    public void sort() {
+        throw immutable();
+    }
+
+    public void clear() {
+        throw immutable();
+    }
+
+    public boolean removeIf(Predicate<? super T> filter) {
+        throw immutable();
+    }
+
+    public void replaceAll(UnaryOperator<T> operator) {
+        throw immutable();
+    }
+}
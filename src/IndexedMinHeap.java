@@ -0,0 +1,233 @@
+import java.util.Arrays;
+
+
+/**
+ * @brief A d-ary min-heap whose elements can be changed or removed after insertion.
+ * insert returns a Handle that keeps track of where its element sits in the
+ * heap, so decreaseKey and remove(handle) run in O(log n) without searching.
+ * This is the structure Dijkstra's algorithm and timer wheels need.
+ */
+public class IndexedMinHeap<T extends Comparable<T>> {
+    private static final int default_capacity = 10;
+    private static final int default_arity = 4;
+
+    /**
+     * @brief A reference to one element in the heap.
+     */
+    public static final class Handle<E> {
+        private E element;
+        private int index; // Position in the heap array, or -1 once removed
+
+        private Handle(E element, int index) {
+            this.element = element;
+            this.index = index;
+        }
+
+        /**
+         * @brief Returns the element this handle refers to.
+         * @return The current element.
+         */
+        public E get() {
+            return element;
+        }
+
+        /**
+         * @brief Checks if the element is still in the heap.
+         * @return true if the element has not been extracted or removed.
+         */
+        public boolean isInHeap() {
+            return index >= 0;
+        }
+    }
+
+    private Handle<T>[] handles;
+    private int size;
+    private final int arity;
+
+    /**
+     * @brief Constructor that initializes an empty heap.
+     */
+    public IndexedMinHeap() {
+        this(default_arity);
+    }
+
+    /**
+     * @brief Constructor that initializes an empty heap with the given number of children per node.
+     * @param arity The number of children per node, 2 for a binary heap.
+     * @throws IllegalArgumentException if arity is smaller than 2.
+     */
+    public IndexedMinHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2");
+        }
+        this.arity = arity;
+        this.handles = (Handle<T>[]) new Handle<?>[default_capacity];
+        this.size = 0;
+    }
+
+    /**
+     * @brief Checks if the heap is empty.
+     * @return true if the heap has no elements, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the number of elements in the heap.
+     * @return The current size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the minimum element without removing it.
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return handles[0].element;
+    }
+
+    /**
+     * @brief Inserts an element into the heap.
+     * @param element The element to insert.
+     * @return The handle to use with decreaseKey and remove.
+     * @throws NullPointerException if the element is null.
+     */
+    public Handle<T> insert(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        if (size == handles.length) {
+            handles = Arrays.copyOf(handles, handles.length * 2);
+        }
+        Handle<T> handle = new Handle<>(element, size);
+        heapifyUp(size++, handle);
+        return handle;
+    }
+
+    /**
+     * @brief Extracts and removes the minimum element from the heap.
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T extractMin() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        Handle<T> min = handles[0];
+        removeAt(0);
+        return min.element;
+    }
+
+    /**
+     * @brief Replaces an element with a smaller or equal one and moves it up the heap.
+     * @param handle The handle returned by insert.
+     * @param element The new element.
+     * @throws IllegalArgumentException if the new element is larger than the current one.
+     * @throws IllegalStateException if the handle's element is no longer in the heap.
+     */
+    public void decreaseKey(Handle<T> handle, T element) {
+        checkInHeap(handle);
+        if (element.compareTo(handle.element) > 0) {
+            throw new IllegalArgumentException("New key is larger than the current key");
+        }
+        handle.element = element;
+        heapifyUp(handle.index, handle);
+    }
+
+    /**
+     * @brief Removes the handle's element from the heap.
+     * @param handle The handle returned by insert.
+     * @throws IllegalStateException if the handle's element is no longer in the heap.
+     */
+    public void remove(Handle<T> handle) {
+        checkInHeap(handle);
+        removeAt(handle.index);
+    }
+
+    /**
+     * @brief Checks that a handle still refers to an element of this heap.
+     * @param handle The handle to check.
+     * @throws IllegalStateException if the handle is not in this heap.
+     */
+    private void checkInHeap(Handle<T> handle) {
+        if (handle.index < 0 || handle.index >= size || handles[handle.index] != handle) {
+            throw new IllegalStateException("Element is not in the heap");
+        }
+    }
+
+    /**
+     * @brief Removes the element at the given index, filling the hole with the last element.
+     * @param index The index to remove.
+     */
+    private void removeAt(int index) {
+        Handle<T> removed = handles[index];
+        Handle<T> last = handles[--size];
+        handles[size] = null;
+        removed.index = -1;
+        if (index < size) {
+            // The last element may belong above or below the hole
+            if (index > 0 && last.element.compareTo(handles[(index - 1) / arity].element) < 0) {
+                heapifyUp(index, last);
+            } else {
+                heapifyDown(index, last);
+            }
+        }
+    }
+
+    /**
+     * @brief Moves a handle up from the given index until its parent is not larger.
+     * @param index The index of the hole to start from.
+     * @param handle The handle to place.
+     */
+    private void heapifyUp(int index, Handle<T> handle) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / arity;
+            Handle<T> parent = handles[parentIndex];
+            if (handle.element.compareTo(parent.element) >= 0) {
+                break;
+            }
+            handles[index] = parent;
+            parent.index = index;
+            index = parentIndex;
+        }
+        handles[index] = handle;
+        handle.index = index;
+    }
+
+    /**
+     * @brief Moves a handle down from the given index until no child is smaller.
+     * @param index The index of the hole to start from.
+     * @param handle The handle to place.
+     */
+    private void heapifyDown(int index, Handle<T> handle) {
+        while (true) {
+            int firstChild = arity * index + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int smallest = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (handles[child].element.compareTo(handles[smallest].element) < 0) {
+                    smallest = child;
+                }
+            }
+            Handle<T> smallestChild = handles[smallest];
+            if (smallestChild.element.compareTo(handle.element) >= 0) {
+                break;
+            }
+            handles[index] = smallestChild;
+            smallestChild.index = index;
+            index = smallest;
+        }
+        handles[index] = handle;
+        handle.index = index;
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * @brief Switch and entry point for the opt-in measurements of the collection hot paths.
+ * The switch is read once from the system property collections.instrument into a
+ * static final field. Every instrumented path tests that field first, and since
+ * the JIT treats it as a constant, a disabled check and the code behind it are
+ * removed from the compiled code entirely.
+ *
+ * When enabled, each measurement goes to the current CollectionMetrics (a
+ * HistogramMetrics by default) and, if a JFR recording has CollectionEvent
+ * enabled, is also emitted as a Flight Recorder event.
+ */
+public final class Instrumentation {
+    /**
+     * @brief true if the JVM was started with -Dcollections.instrument=true.
+     */
+    public static final boolean enabled = Boolean.getBoolean("collections.instrument");
+
+    /**
+     * @brief Bytes per array element of an object array, 4 with compressed references and 8 without.
+     */
+    static final int reference_bytes = referenceBytes();
+
+    private static volatile CollectionMetrics metrics = new HistogramMetrics();
+
+    private Instrumentation() {
+    }
+
+    /**
+     * @brief Reads the object array element size from sun.misc.Unsafe, falling back to 8.
+     * @return The element size in bytes.
+     */
+    private static int referenceBytes() {
+        try {
+            return Class.forName("sun.misc.Unsafe").getField("ARRAY_OBJECT_INDEX_SCALE").getInt(null);
+        } catch (ReflectiveOperationException e) {
+            return 8;
+        }
+    }
+
+    /**
+     * @brief Returns the current metrics sink.
+     * @return The sink receiving the measurements.
+     */
+    public static CollectionMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * @brief Replaces the metrics sink, for example to export to a monitoring system.
+     * @param sink The new sink.
+     * @throws NullPointerException if the sink is null.
+     */
+    public static void setMetrics(CollectionMetrics sink) {
+        if (sink == null) {
+            throw new NullPointerException("Metrics sink must not be null");
+        }
+        metrics = sink;
+    }
+
+    /**
+     * @brief Records one measurement. Callers test enabled first.
+     * @param metric The measured quantity.
+     * @param value The measured value.
+     */
+    static void record(CollectionMetrics.Metric metric, long value) {
+        metrics.record(metric, value);
+        CollectionEvent event = new CollectionEvent();
+        if (event.isEnabled()) {
+            event.metric = metric.name();
+            event.value = value;
+            event.commit();
+        }
+    }
+}
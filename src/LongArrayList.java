@@ -0,0 +1,344 @@
+import java.util.Arrays;
+
+
+/**
+ * @brief Primitive long specialization of MyArrayList.
+ * Follows the same add/set/get/remove/indexOf/toArray contract as MyList, but
+ * stores the values in a long[] so that no element is ever boxed. The scans
+ * (indexOf, min/max/sum, fill and the count methods) are plain counted loops over
+ * the array, the shape the JIT unrolls and turns into SIMD instructions.
+ */
+public class LongArrayList {
+    private static final int default_capacity = 10; // Default initial capacity
+    private long[] elements; // Underlying array holding list elements
+    private int size; // Current size of the list
+
+    /**
+     * Default constructor that initializes the list with a default capacity.
+     */
+    public LongArrayList() {
+        this(default_capacity);
+    }
+
+    /**
+     * Constructor that initializes the list with the given capacity.
+     * @param initialCapacity The initial capacity of the list.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public LongArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Capacity must not be negative");
+        }
+        this.elements = new long[initialCapacity];
+        this.size = 0;
+    }
+
+    /**
+     * Ensures that the underlying array has at least the specified minimum capacity.
+     * @param minCapacity The minimum required capacity.
+     */
+    private void increaseCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            int newCapacity = Math.max(minCapacity, elements.length * 2); // Double the capacity or more
+            elements = Arrays.copyOf(elements, newCapacity);
+        }
+    }
+
+    /**
+     * Checks if the list is empty
+     * @return true if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Adds a value to the end of the list
+     * @param item The value to add.
+     */
+    public void add(long item) {
+        increaseCapacity(size + 1);
+        elements[size++] = item;
+    }
+
+    /**
+     * Sets the value at a specific index
+     * @param index The index to set the value at.
+     * @param item The value to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, long item) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        elements[index] = item;
+    }
+
+    /**
+     * Inserts a value at a specific index
+     * @param index The index to insert the value at
+     * @param item The value to insert
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public void add(int index, long item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        increaseCapacity(size + 1);
+        System.arraycopy(elements, index, elements, index + 1, size - index); // Shift elements to make room
+        elements[index] = item;
+        size++;
+    }
+
+    /**
+     * Inserts a value at the beginning of the list
+     * @param item The value to insert
+     */
+    public void addFirst(long item) {
+        add(0, item);
+    }
+
+    /**
+     * Inserts a value at the end of the list
+     * @param item The value to insert
+     */
+    public void addLast(long item) {
+        add(item);
+    }
+
+    /**
+     * Retrieves the value at a specific index.
+     * @param index The index to retrieve the value from
+     * @return The value at the specified index
+     * @throws IndexOutOfBoundsException if the index is out of bounds
+     */
+    public long get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return elements[index];
+    }
+
+    /**
+     * Retrieves the first value in the list.
+     * @return The first value in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public long getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return elements[0];
+    }
+
+    /**
+     * Retrieves the last value in the list.
+     * @return The last value in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public long getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return elements[size - 1];
+    }
+
+    /**
+     * Removes the value at a specific index.
+     * @param index The index to remove the value from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1); // Shift elements left to fill the gap
+        size--;
+    }
+
+    /**
+     * Removes the first value in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    /**
+     * Removes the last value in the list
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        size--; // Nothing to null out for primitives
+    }
+
+    /**
+     * Sorts the list in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * Returns the index of the first occurrence of a value.
+     * @param value The value to search for.
+     * @return The index of the value, or -1 if it is not in the list.
+     */
+    public int indexOf(long value) {
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of a value.
+     * @param value The value to search for.
+     * @return The index of the value, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(long value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks if a value exists in the list.
+     * @param value The value to search for.
+     * @return true if the value is found, otherwise false.
+     */
+    public boolean exists(long value) {
+        return indexOf(value) != -1;
+    }
+
+    /**
+     * Returns the smallest value in the list.
+     * @return The minimum value.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public long min() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, elements[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the largest value in the list.
+     * @return The maximum value.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public long max() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < size; i++) {
+            max = Math.max(max, elements[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Returns the sum of all values in the list.
+     * @return The sum, or 0 if the list is empty.
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += elements[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Sets every value in a range to the same value.
+     * @param fromIndex The first index to set, inclusive.
+     * @param toIndex The last index to set, exclusive.
+     * @param value The value to store.
+     * @throws IndexOutOfBoundsException if the range is not inside the list.
+     */
+    public void fill(int fromIndex, int toIndex, long value) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        Arrays.fill(elements, fromIndex, toIndex, value);
+    }
+
+    /**
+     * Counts the values equal to a constant.
+     * @param value The value to compare with.
+     * @return The number of matching values.
+     */
+    public int countEqual(long value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += elements[i] == value ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the values smaller than a constant.
+     * @param value The value to compare with.
+     * @return The number of matching values.
+     */
+    public int countLessThan(long value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += elements[i] < value ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Counts the values larger than a constant.
+     * @param value The value to compare with.
+     * @return The number of matching values.
+     */
+    public int countGreaterThan(long value) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += elements[i] > value ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Converts the list to an exact-size array.
+     * @return An array containing all values in the list.
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /**
+     * Clears all values from the list. The backing array is kept for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Returns the current size of the list.
+     * @return The number of values in the list.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,310 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+
+/**
+ * @brief A persistent list of fixed-width records stored in a memory-mapped file.
+ * The file starts with a small header holding the record width, the size and the
+ * capacity, followed by the records. Records are mapped in large regions with
+ * FileChannel.map, so reads and writes go straight to the page cache without
+ * copying, and reopening an existing file only maps it instead of rebuilding the
+ * list. The list grows by extending the file and mapping one more region; the
+ * regions already mapped stay where they are.
+ *
+ * Record changes reach the file when the operating system writes the pages back.
+ * The size and capacity are kept in memory and only stored in the header by
+ * force() and close(), after the records and the file length are durable; the
+ * header of a new file is forced when it is created. Reopening a file that was
+ * not closed gives the list as of the last force().
+ */
+public class MappedList<T> implements AutoCloseable {
+    private static final long magic = 0x4D594C4953543031L; // "MYLIST01"
+    private static final int header_bytes = 4096; // One page, so every region starts page aligned
+    private static final int magic_offset = 0;
+    private static final int record_size_offset = 8;
+    private static final int region_records_offset = 12;
+    private static final int size_offset = 16;
+    private static final int capacity_offset = 24;
+    private static final int default_region_bytes = 64 << 20; // Target size of one mapped region
+
+    private final FileChannel channel;
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private final int regionShift; // log2 of the number of records per region
+    private final int regionMask;
+    private final MappedByteBuffer header;
+    private ByteBuffer[] regions;
+    private int regionCount;
+    private int size;
+    private boolean closed;
+
+    /**
+     * @brief Opens the list stored in a file, creating an empty one if the file does not exist.
+     * @param path The file that holds the list.
+     * @param codec The codec that converts elements to records.
+     * @return The opened list.
+     * @throws IOException if the file cannot be opened or mapped.
+     * @throws IllegalArgumentException if the file was not written by MappedList, uses a different record width,
+     *         or has a header whose region size, capacity or size is inconsistent.
+     */
+    public static <T> MappedList<T> open(Path path, RecordCodec<T> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new MappedList<>(channel, codec);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * @brief Maps the header and every region of an open file, initializing the header of a new file.
+     * @param channel The open file.
+     * @param codec The codec that converts elements to records.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private MappedList(FileChannel channel, RecordCodec<T> codec) throws IOException {
+        this.channel = channel;
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        boolean isNew = channel.size() == 0;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, header_bytes);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        int regionRecords;
+        long capacity;
+        if (isNew) {
+            regionRecords = Integer.highestOneBit(Math.max(1, default_region_bytes / recordSize));
+            capacity = 0;
+            header.putLong(magic_offset, magic);
+            header.putInt(record_size_offset, recordSize);
+            header.putInt(region_records_offset, regionRecords);
+            header.putLong(size_offset, 0);
+            header.putLong(capacity_offset, 0);
+            header.force();
+            channel.force(true); // The file length and directory entry, so a crash leaves an empty list
+        } else {
+            if (header.getLong(magic_offset) != magic) {
+                throw new IllegalArgumentException("Not a MappedList file");
+            }
+            if (header.getInt(record_size_offset) != recordSize) {
+                throw new IllegalArgumentException("File uses " + header.getInt(record_size_offset)
+                        + "-byte records, codec uses " + recordSize);
+            }
+            regionRecords = header.getInt(region_records_offset);
+            capacity = header.getLong(capacity_offset);
+            long storedSize = header.getLong(size_offset);
+            if (regionRecords <= 0 || Integer.bitCount(regionRecords) != 1) {
+                throw new IllegalArgumentException("Corrupt header: records per region is not a power of two");
+            }
+            if (capacity < 0 || capacity % regionRecords != 0 || capacity > Integer.MAX_VALUE
+                    || header_bytes + capacity * recordSize > channel.size()) {
+                throw new IllegalArgumentException("Corrupt header: capacity does not match the file");
+            }
+            if (storedSize < 0 || storedSize > capacity) {
+                throw new IllegalArgumentException("Corrupt header: size is outside the capacity");
+            }
+        }
+        this.regionShift = Integer.numberOfTrailingZeros(regionRecords);
+        this.regionMask = regionRecords - 1;
+        this.size = (int) header.getLong(size_offset);
+
+        int mapped = (int) (capacity >>> regionShift);
+        this.regions = new ByteBuffer[Math.max(4, mapped)];
+        this.regionCount = 0;
+        for (int i = 0; i < mapped; i++) {
+            mapRegion();
+        }
+    }
+
+    /**
+     * @brief Maps the next region of the file, extending the file if needed.
+     * The new capacity reaches the header in force(), once the longer file is durable.
+     * @throws IOException if the region cannot be mapped.
+     */
+    private void mapRegion() throws IOException {
+        long regionBytes = (long) (regionMask + 1) * recordSize;
+        long position = header_bytes + regionCount * regionBytes;
+        if (regionCount == regions.length) {
+            regions = Arrays.copyOf(regions, regionCount * 2);
+        }
+        MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, regionBytes);
+        region.order(ByteOrder.LITTLE_ENDIAN);
+        regions[regionCount++] = region;
+    }
+
+    /**
+     * @brief Throws if the list has been closed.
+     * @throws IllegalStateException if close() has been called.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+
+    /**
+     * @brief Throws if the index is not in the list.
+     * @param index The index to check.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list, mapping another region when the current ones are full.
+     * @param item The item to add.
+     * @throws UncheckedIOException if the file cannot be extended.
+     * @throws IllegalStateException if the list would exceed Integer.MAX_VALUE records.
+     */
+    public void add(T item) {
+        checkOpen();
+        if ((size >>> regionShift) == regionCount) {
+            if (((long) regionCount + 1) << regionShift > Integer.MAX_VALUE) {
+                throw new IllegalStateException("List is too large");
+            }
+            try {
+                mapRegion();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        codec.write(regions[size >>> regionShift], (size & regionMask) * recordSize, item);
+        size++;
+    }
+
+    /**
+     * @brief Sets the value at a specific index.
+     * @param index The index to set the item at.
+     * @param item The item to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, T item) {
+        checkOpen();
+        checkIndex(index);
+        codec.write(regions[index >>> regionShift], (index & regionMask) * recordSize, item);
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to retrieve the item from.
+     * @return A newly decoded copy of the item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        checkOpen();
+        checkIndex(index);
+        return codec.read(regions[index >>> regionShift], (index & regionMask) * recordSize);
+    }
+
+    /**
+     * @brief Retrieves the last item in the list.
+     * @return The last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(size - 1);
+    }
+
+    /**
+     * @brief Removes the item at a specific index, moving the later records back by one.
+     * @param index The index to remove the item from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        checkOpen();
+        checkIndex(index);
+        OffHeapList.shiftLeft(regions, regionShift, recordSize, index, size);
+        size--;
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        checkOpen();
+        size--;
+    }
+
+    /**
+     * @brief Removes all elements. The file keeps its capacity for reuse.
+     */
+    public void clear() {
+        checkOpen();
+        size = 0;
+    }
+
+    /**
+     * @brief Writes all changed records and the file length to the storage device, then records the size
+     * and capacity in the header and writes it.
+     * They are only put in the header after the records and the file length are durable, so a crash never
+     * leaves a header that covers unwritten records or a file shorter than the capacity.
+     * @throws UncheckedIOException if the file length cannot be written.
+     */
+    public void force() {
+        checkOpen();
+        for (int i = 0; i < regionCount; i++) {
+            ((MappedByteBuffer) regions[i]).force();
+        }
+        try {
+            channel.force(false); // Also writes the length of a file that grew
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        header.putLong(size_offset, size);
+        header.putLong(capacity_offset, (long) regionCount << regionShift);
+        header.force();
+    }
+
+    /**
+     * @brief Forces all changes to disk, unmaps the file and closes it.
+     * @throws IOException if the file cannot be closed.
+     */
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        force();
+        closed = true;
+        for (int i = 0; i < regionCount; i++) {
+            OffHeapList.free(regions[i]);
+            regions[i] = null;
+        }
+        OffHeapList.free(header);
+        regionCount = 0;
+        channel.close();
+    }
+}
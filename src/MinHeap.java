@@ -1,14 +1,65 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collection;
+
+
 /**
  * @brief A generic min-heap implementation.
+ * The heap is stored directly in an array as a d-ary tree: the children of the
+ * element at index i are at indices arity * i + 1 to arity * i + arity. The
+ * default arity of 4 keeps the tree shallow and puts all children of a node on
+ * the same cache lines.
  */
 public class MinHeap<T extends Comparable<T>> {
-    private MyList<T> elements;
+    private static final int default_capacity = 10;
+    private static final int default_arity = 4;
+
+    private Object[] elements;
+    private int size;
+    private final int arity;
 
     /**
      * @brief Constructor that initializes an empty heap.
      */
     public MinHeap() {
-        elements = new MyArrayList<>();
+        this(default_arity);
+    }
+
+    /**
+     * @brief Constructor that initializes an empty heap with the given number of children per node.
+     * @param arity The number of children per node, 2 for a binary heap.
+     * @throws IllegalArgumentException if arity is smaller than 2.
+     */
+    public MinHeap(int arity) {
+        if (arity < 2) {
+            throw new IllegalArgumentException("Arity must be at least 2");
+        }
+        this.arity = arity;
+        this.elements = new Object[default_capacity];
+        this.size = 0;
+    }
+
+    /**
+     * @brief Constructor that builds a heap from existing elements in O(n).
+     * @param collection The elements to put in the heap.
+     * @throws NullPointerException if the collection contains null.
+     */
+    public MinHeap(Collection<? extends T> collection) {
+        this(default_arity);
+        insertAll(collection);
+    }
+
+    /**
+     * @brief Constructor that adopts an array already in heap order, without rebuilding it.
+     * @param arity The number of children per node the array was laid out with.
+     * @param elements The backing array, full and in heap order.
+     * @throws IllegalArgumentException if arity is smaller than 2.
+     */
+    private MinHeap(int arity, Object[] elements) {
+        this(arity);
+        this.elements = elements;
+        this.size = elements.length;
     }
 
     /**
@@ -16,16 +67,92 @@ public class MinHeap<T extends Comparable<T>> {
      * @return true if the heap has no elements, false otherwise.
      */
     public boolean isEmpty() {
-        return elements.size() == 0;
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the number of elements in the heap.
+     * @return The current size of the heap.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the minimum element without removing it.
+     * @return The minimum element in the heap.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public T peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return (T) elements[0];
     }
 
     /**
      * @brief Inserts an element into the heap, maintaining the min-heap property.
      * @param element The element to insert into the heap.
+     * @throws NullPointerException if the element is null.
      */
     public void insert(T element) {
-        elements.add(element);
-        heapifyUp(elements.size() - 1);
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        increaseCapacity(size + 1);
+        heapifyUp(size++, element);
+    }
+
+    /**
+     * @brief Inserts many elements at once.
+     * When the batch is at least as large as the heap, the whole array is rebuilt
+     * bottom-up with Floyd's method, which is O(n) instead of O(n log n) for n inserts.
+     * @param collection The elements to insert.
+     * @throws NullPointerException if the collection contains null.
+     */
+    public void insertAll(Collection<? extends T> collection) {
+        Object[] batch = collection.toArray();
+        for (Object element : batch) {
+            if (element == null) {
+                throw new NullPointerException("Null elements are not allowed");
+            }
+        }
+        increaseCapacity(size + batch.length);
+        if (batch.length >= size) {
+            System.arraycopy(batch, 0, elements, size, batch.length);
+            size += batch.length;
+            heapify();
+        } else {
+            for (Object element : batch) {
+                heapifyUp(size++, (T) element);
+            }
+        }
+    }
+
+    /**
+     * @brief Writes the heap to a binary snapshot file, replacing the file's contents.
+     * The backing array is written in its current order, so the snapshot keeps the heap layout.
+     * The file is replaced atomically once the snapshot is complete; if writing fails, it is left unchanged.
+     * @param path The file to write.
+     * @param codec The codec that converts elements to fixed-width records.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeSnapshot(Path path, RecordCodec<? super T> codec) throws IOException {
+        Snapshot.write(path, Snapshot.heap_kind, arity, elements, size, codec);
+    }
+
+    /**
+     * @brief Reads a heap from a snapshot file written by writeSnapshot.
+     * The records are decoded straight into the backing array in heap order, so no sifting is done.
+     * @param path The file to read.
+     * @param codec The codec that converts records to elements.
+     * @return The restored heap, with the arity it was written with.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a heap snapshot or does not match the codec.
+     */
+    public static <T extends Comparable<T>> MinHeap<T> readSnapshot(Path path, RecordCodec<T> codec) throws IOException {
+        Snapshot snapshot = Snapshot.read(path, Snapshot.heap_kind, codec);
+        return new MinHeap<>(snapshot.arity, snapshot.elements);
     }
 
     /**
@@ -38,65 +165,117 @@ public class MinHeap<T extends Comparable<T>> {
             throw new IllegalStateException("Heap is empty");
         }
 
-        T min = elements.get(0);
-        T lastElement = elements.getLast();
-        elements.removeLast();
+        T min = (T) elements[0];
+        T lastElement = (T) elements[--size];
+        elements[size] = null;
 
         if (!isEmpty()) {
-            elements.set(0, lastElement);
-            heapifyDown(0);
+            heapifyDown(0, lastElement);
         }
 
         return min;
     }
 
     /**
-     * @brief Restores the heap property by moving the element at the given index up the heap.
-     * @param index The index to start heapifying from.
+     * @brief Replaces the minimum element with a new one using a single sift-down.
+     * This does half the work of extractMin followed by insert, which sifts the heap twice.
+     * The element may also be the current minimum after its key has grown.
+     * @param element The element to put in the heap.
+     * @return The minimum element before the call.
+     * @throws NullPointerException if the element is null.
+     * @throws IllegalStateException if the heap is empty.
      */
-    private void heapifyUp(int index) {
-        while (index > 0) {
-            int parentIndex = (index - 1) / 2; // Calculate parent index
-            if (elements.get(index).compareTo(elements.get(parentIndex)) >= 0) {
-                break;
-            }
-
-            swap(index, parentIndex);
-            index = parentIndex;
+    public T replaceTop(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
         }
+        if (isEmpty()) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        T min = (T) elements[0];
+        heapifyDown(0, element);
+        return min;
     }
 
     /**
-     * @brief Restores the heap property by moving the element at the given index down the heap.
-     * @param index The index to start heapifying from.
+     * @brief Copies the elements to an array in heap order, which is not sorted order.
+     * @return An array containing all elements in the heap.
      */
-    private void heapifyDown(int index) {
-        int smallest = index;
-        int leftChild = 2 * index + 1;
-        int rightChild = 2 * index + 2;
+    public Object[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
 
-        if (leftChild < elements.size() && elements.get(leftChild).compareTo(elements.get(smallest)) < 0) {
-            smallest = leftChild;
+    /**
+     * @brief Ensures that the underlying array has at least the specified minimum capacity.
+     * @param minCapacity The minimum required capacity.
+     */
+    private void increaseCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(minCapacity, elements.length * 2));
         }
+    }
 
-        if (rightChild < elements.size() && elements.get(rightChild).compareTo(elements.get(smallest)) < 0) {
-            smallest = rightChild;
+    /**
+     * @brief Restores the heap property for the whole array in O(n), sifting down every parent from the last one up.
+     */
+    private void heapify() {
+        for (int index = (size - 2) / arity; index >= 0; index--) {
+            heapifyDown(index, (T) elements[index]);
         }
+    }
 
-        if (smallest != index) {
-            swap(index, smallest);
-            heapifyDown(smallest);
+    /**
+     * @brief Moves an element up from the given index until its parent is not larger.
+     * Parents are shifted down into the hole instead of swapping at every level.
+     * @param index The index of the hole to start from.
+     * @param element The element to place.
+     */
+    private void heapifyUp(int index, T element) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / arity;
+            T parent = (T) elements[parentIndex];
+            if (element.compareTo(parent) >= 0) {
+                break;
+            }
+            elements[index] = parent;
+            index = parentIndex;
         }
+        elements[index] = element;
     }
 
     /**
-     * @brief Swaps the elements at the given indices.
-     * @param i Index of the first element.
-     * @param j Index of the second element.
+     * @brief Moves an element down from the given index until no child is smaller.
+     * The smallest child is shifted up into the hole instead of swapping at every level.
+     * @param index The index of the hole to start from.
+     * @param element The element to place.
      */
-    private void swap(int i, int j) {
-        T temp = elements.get(i);
-        elements.set(i, elements.get(j));
-        elements.set(j, temp);
+    private void heapifyDown(int index, T element) {
+        int levels = 0;
+        while (true) {
+            int firstChild = arity * index + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + arity, size);
+            int smallest = firstChild;
+            T smallestChild = (T) elements[firstChild];
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                T candidate = (T) elements[child];
+                if (candidate.compareTo(smallestChild) < 0) {
+                    smallest = child;
+                    smallestChild = candidate;
+                }
+            }
+            if (smallestChild.compareTo(element) >= 0) {
+                break;
+            }
+            elements[index] = smallestChild;
+            index = smallest;
+            levels++;
+        }
+        elements[index] = element;
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.SIFT_DEPTH, levels);
+        }
     }
 }
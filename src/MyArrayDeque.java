@@ -0,0 +1,186 @@
+/**
+ * @brief A growable double-ended queue stored in a circular array.
+ * The capacity is always a power of two, so positions wrap with a bit mask
+ * instead of a division. Adding and removing at either end is O(1) and does
+ * not allocate unless the array has to grow.
+ */
+public class MyArrayDeque<T> {
+    private static final int default_capacity = 16; // Must be a power of two
+    private static final int max_capacity = 1 << 30;
+
+    private Object[] elements;
+    private int head; // Index of the first element
+    private int size;
+
+    /**
+     * @brief Constructs an empty deque with the default capacity.
+     */
+    public MyArrayDeque() {
+        elements = new Object[default_capacity];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @brief Constructs an empty deque that can hold the given number of elements without growing.
+     * @param initialCapacity The number of elements to reserve room for.
+     * @throws IllegalArgumentException if the capacity is negative or too large.
+     */
+    public MyArrayDeque(int initialCapacity) {
+        if (initialCapacity < 0 || initialCapacity > max_capacity) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        elements = new Object[roundUpToPowerOfTwo(Math.max(initialCapacity, 1))];
+        head = 0;
+        size = 0;
+    }
+
+    /**
+     * @brief Rounds a positive number up to the next power of two.
+     * @param value The value to round.
+     * @return The smallest power of two that is greater than or equal to value.
+     */
+    private static int roundUpToPowerOfTwo(int value) {
+        int highest = Integer.highestOneBit(value);
+        return highest == value ? value : highest << 1;
+    }
+
+    /**
+     * @brief Doubles the backing array, moving the elements so that the first one is at index 0.
+     * @throws IllegalStateException if the deque cannot grow any further.
+     */
+    private void grow() {
+        int oldCapacity = elements.length;
+        if (oldCapacity >= max_capacity) {
+            throw new IllegalStateException("Deque is too large");
+        }
+        Object[] newArray = new Object[oldCapacity << 1];
+        int firstPart = oldCapacity - head; // Elements from head to the end of the old array
+        System.arraycopy(elements, head, newArray, 0, firstPart);
+        System.arraycopy(elements, 0, newArray, firstPart, head);
+        elements = newArray;
+        head = 0;
+    }
+
+    /**
+     * @brief Checks if the deque is empty.
+     * @return true if the deque has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the number of elements in the deque.
+     * @return The current size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Inserts an item at the front of the deque.
+     * @param item The item to insert.
+     */
+    public void addFirst(T item) {
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = item;
+        size++;
+    }
+
+    /**
+     * @brief Inserts an item at the back of the deque.
+     * @param item The item to insert.
+     */
+    public void addLast(T item) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = item;
+        size++;
+    }
+
+    /**
+     * @brief Gets the first item in the deque.
+     * @return The first item.
+     * @throws IllegalStateException if the deque is empty.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Deque is empty");
+        }
+        return (T) elements[head];
+    }
+
+    /**
+     * @brief Gets the last item in the deque.
+     * @return The last item.
+     * @throws IllegalStateException if the deque is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Deque is empty");
+        }
+        return (T) elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * @brief Retrieves the item at a position counted from the front.
+     * @param index The position of the item.
+     * @return The item at the specified position.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return (T) elements[(head + index) & (elements.length - 1)];
+    }
+
+    /**
+     * @brief Removes and returns the first item in the deque.
+     * @return The removed item.
+     * @throws IllegalStateException if the deque is empty.
+     */
+    public T removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Deque is empty");
+        }
+        T item = (T) elements[head];
+        elements[head] = null; // Let the element be garbage collected
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return item;
+    }
+
+    /**
+     * @brief Removes and returns the last item in the deque.
+     * @return The removed item.
+     * @throws IllegalStateException if the deque is empty.
+     */
+    public T removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Deque is empty");
+        }
+        int tail = (head + size - 1) & (elements.length - 1);
+        T item = (T) elements[tail];
+        elements[tail] = null;
+        size--;
+        return item;
+    }
+
+    /**
+     * @brief Clears all elements from the deque. The backing array is kept for reuse.
+     */
+    public void clear() {
+        int mask = elements.length - 1;
+        for (int i = 0; i < size; i++) {
+            elements[(head + i) & mask] = null;
+        }
+        head = 0;
+        size = 0;
+    }
+}
@@ -1,4 +1,14 @@
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 
 /**
@@ -9,8 +19,10 @@ import java.util.Arrays;
  */
 public class MyArrayList<T> implements MyList<T> {
     private static final int default_capacity = 10; // Default initial capacity
+    private static final int parallel_sort_threshold = 1 << 16; // Smallest size sorted with fork/join
     private Object[] elements; // Underlying array holding list elements
     private int size; // Current size of the list
+    private int modCount; // Number of structural changes, checked by iterators and bulk traversals
 
     /**
      * Default constructor that initializes the list with a default capacity.
@@ -27,12 +39,34 @@ public class MyArrayList<T> implements MyList<T> {
     private void increaseCapacity(int minCapacity) {
         if (minCapacity > elements.length) {
             int newCapacity = Math.max(minCapacity, elements.length * 2); // Double the capacity or more
+            if (Instrumentation.enabled) {
+                Instrumentation.record(CollectionMetrics.Metric.CAPACITY_GROWTH, newCapacity);
+            }
             Object[] newArray = new Object[newCapacity];
             System.arraycopy(elements, 0, newArray, 0, size); // Copy existing elements to new array
             elements = newArray; // Replace the old array with the new one
         }
     }
 
+    /**
+     * Grows the backing array once so that at least minCapacity elements fit.
+     * Bulk loaders call this before a run of add calls to skip the intermediate copies.
+     * @param minCapacity The minimum required capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        increaseCapacity(minCapacity);
+    }
+
+    /**
+     * Shrinks the backing array to the current size, giving the unused slots back to the heap.
+     */
+    public void trimToSize() {
+        if (size < elements.length) {
+            elements = Arrays.copyOf(elements, size);
+            modCount++;
+        }
+    }
+
     /**
      * Checks if the list is empty
      * @return true if the list is empty, false otherwise.
@@ -48,6 +82,7 @@ public class MyArrayList<T> implements MyList<T> {
     public void add(T item) {
         increaseCapacity(size + 1); // Ensure sufficient capacity
         elements[size++] = item; // Add the item and increment the size
+        modCount++;
     }
 
     /**
@@ -74,9 +109,104 @@ public class MyArrayList<T> implements MyList<T> {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
         increaseCapacity(size + 1); // Ensure sufficient capacity
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.BYTES_MOVED, (long) (size - index) * Instrumentation.reference_bytes);
+        }
         System.arraycopy(elements, index, elements, index + 1, size - index); // Shift elements to make room
         elements[index] = item; // Insert the item
         size++; // Increment size after adding
+        modCount++;
+    }
+
+    /**
+     * Adds all items of an array to the end of the list with one capacity check and one copy.
+     * @param items The items to add. Every item must be a T.
+     */
+    public void addAll(Object[] items) {
+        addAll(size, items, items.length);
+    }
+
+    /**
+     * Adds all items of another list to the end of this list.
+     * Another MyArrayList is copied straight from its backing array.
+     * @param list The list whose items are added. May be this list.
+     */
+    public void addAll(MyList<? extends T> list) {
+        addAll(size, list);
+    }
+
+    /**
+     * Inserts all items of an array at a specific index, shifting the later elements once.
+     * @param index The index to insert the first item at.
+     * @param items The items to insert. Every item must be a T.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void addAll(int index, Object[] items) {
+        addAll(index, items, items.length);
+    }
+
+    /**
+     * Inserts all items of another list at a specific index, shifting the later elements once.
+     * @param index The index to insert the first item at.
+     * @param list The list whose items are inserted. May be this list.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void addAll(int index, MyList<? extends T> list) {
+        if (list instanceof MyArrayList) {
+            MyArrayList<? extends T> other = (MyArrayList<? extends T>) list;
+            Object[] items = other == this ? Arrays.copyOf(elements, size) : other.elements; // Self-insertion would read shifted slots
+            addAll(index, items, other.size);
+        } else {
+            Object[] items = list.toArray();
+            addAll(index, items, items.length);
+        }
+    }
+
+    /**
+     * Inserts the first count items of an array at an index.
+     * @param index The index to insert the first item at.
+     * @param items The array holding the items.
+     * @param count The number of items to insert.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void addAll(int index, Object[] items, int count) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (count == 0) {
+            return;
+        }
+        increaseCapacity(size + count); // One capacity check for the whole batch
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.BYTES_MOVED, (long) (size - index) * Instrumentation.reference_bytes);
+        }
+        System.arraycopy(elements, index, elements, index + count, size - index); // One shift for the whole batch
+        System.arraycopy(items, 0, elements, index, count);
+        size += count;
+        modCount++;
+    }
+
+    /**
+     * Removes the elements from fromIndex, inclusive, to toIndex, exclusive, with one shift.
+     * @param fromIndex The first index to remove.
+     * @param toIndex The index after the last one to remove.
+     * @throws IndexOutOfBoundsException if the range is not inside the list.
+     */
+    public void removeRange(int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (fromIndex == toIndex) {
+            return;
+        }
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.BYTES_MOVED, (long) (size - toIndex) * Instrumentation.reference_bytes);
+        }
+        System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex); // Shift the tail left once
+        int newSize = size - (toIndex - fromIndex);
+        Arrays.fill(elements, newSize, size, null); // Let the removed elements be collected
+        size = newSize;
+        modCount++;
     }
 
     /**
@@ -141,8 +271,12 @@ public class MyArrayList<T> implements MyList<T> {
         if (index < 0 || index >= size) {
             throw new IndexOutOfBoundsException("Index out of bounds");
         }
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.BYTES_MOVED, (long) (size - index - 1) * Instrumentation.reference_bytes);
+        }
         System.arraycopy(elements, index + 1, elements, index, size - index - 1); // Shift elements left to fill the gap
         elements[--size] = null; // Decrement size and set the last element to null
+        modCount++;
     }
 
     /**
@@ -168,11 +302,29 @@ public class MyArrayList<T> implements MyList<T> {
     }
 
     /**
-     * Sorts the list
-     * @throws UnsupportedOperationException because sorting is not supported.
+     * Sorts the list in the natural order of its elements
+     * @throws ClassCastException if the elements are not mutually comparable.
      */
     public void sort() {
-        throw new UnsupportedOperationException("Sorting is not supported");
+        sort(null);
+    }
+
+    /**
+     * Sorts the list in place on the backing array.
+     * Lists below parallel_sort_threshold use TimSort (with its insertion-sort
+     * runs) on the calling thread. Larger lists use a fork/join parallel merge
+     * sort over the common pool, so the work is spread across all cores.
+     * @param comparator The comparator to order by, or null for the natural order.
+     * @throws ClassCastException if comparator is null and the elements are not mutually comparable.
+     */
+    public void sort(Comparator<? super T> comparator) {
+        T[] array = (T[]) elements;
+        if (size < parallel_sort_threshold) {
+            Arrays.sort(array, 0, size, comparator);
+        } else {
+            Arrays.parallelSort(array, 0, size, comparator);
+        }
+        modCount++;
     }
 
     public int indexOf(Object object) {
@@ -210,9 +362,247 @@ public class MyArrayList<T> implements MyList<T> {
             elements[i] = null;
         }
         size = 0;
+        modCount++;
     }
 
     public int size() {
         return size;
     }
+
+    /**
+     * Returns an immutable copy of the list backed by an exact-size array.
+     * The copy can be shared between threads without locking; this list stays mutable.
+     * @return An immutable list holding the current elements.
+     */
+    public ImmutableList<T> freeze() {
+        return new ImmutableList<>(Arrays.copyOf(elements, size));
+    }
+
+    /**
+     * Writes the list to a binary snapshot file, replacing the file's contents.
+     * The records go out in chunks through gathering writes, so no second copy of the list is built.
+     * The file is replaced atomically once the snapshot is complete; if writing fails, it is left unchanged.
+     * @param path The file to write.
+     * @param codec The codec that converts elements to fixed-width records.
+     * @throws IOException if the file cannot be written.
+     * @throws NullPointerException if the list holds null and the codec cannot encode it.
+     */
+    public void writeSnapshot(Path path, RecordCodec<? super T> codec) throws IOException {
+        Snapshot.write(path, Snapshot.list_kind, 0, elements, size, codec);
+    }
+
+    /**
+     * Reads a list from a snapshot file written by writeSnapshot.
+     * The records are decoded straight into the new list's backing array.
+     * @param path The file to read.
+     * @param codec The codec that converts records to elements.
+     * @return The restored list.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a list snapshot or does not match the codec.
+     */
+    public static <T> MyArrayList<T> readSnapshot(Path path, RecordCodec<T> codec) throws IOException {
+        Snapshot snapshot = Snapshot.read(path, Snapshot.list_kind, codec);
+        MyArrayList<T> list = new MyArrayList<>();
+        list.elements = snapshot.elements; // Exact size; the next add grows it
+        list.size = snapshot.elements.length;
+        return list;
+    }
+
+    /**
+     * Performs an action for each element, reading the backing array directly.
+     * @param action The action to perform.
+     * @throws ConcurrentModificationException if the action changes the size of the list.
+     */
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        Object[] array = elements; // Locals let the JIT hoist the loads out of the loop
+        int count = size;
+        for (int i = 0; i < count && modCount == expectedModCount; i++) {
+            action.accept((T) array[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Removes every element matching a predicate with a single compacting pass.
+     * Each kept element is moved at most once. If the predicate throws, the
+     * elements not yet tested are kept and the list stays consistent.
+     * @param filter The predicate selecting the elements to remove.
+     * @return true if any element was removed.
+     * @throws ConcurrentModificationException if the predicate changes the list.
+     */
+    public boolean removeIf(Predicate<? super T> filter) {
+        int expectedModCount = modCount;
+        int count = size;
+        int kept = 0;
+        int tested = 0;
+        try {
+            for (; tested < count; tested++) {
+                T element = (T) elements[tested];
+                if (!filter.test(element)) {
+                    elements[kept++] = element;
+                }
+                if (modCount != expectedModCount) {
+                    throw new ConcurrentModificationException();
+                }
+            }
+        } finally {
+            System.arraycopy(elements, tested, elements, kept, count - tested); // Keep the untested part
+            int newSize = kept + count - tested;
+            Arrays.fill(elements, newSize, count, null); // Let the removed elements be collected
+            size = newSize;
+            modCount++;
+        }
+        return kept != count;
+    }
+
+    /**
+     * Replaces each element with the result of applying an operator to it, in place.
+     * @param operator The operator to apply.
+     * @throws ConcurrentModificationException if the operator changes the size of the list.
+     */
+    public void replaceAll(UnaryOperator<T> operator) {
+        int expectedModCount = modCount;
+        Object[] array = elements;
+        int count = size;
+        for (int i = 0; i < count && modCount == expectedModCount; i++) {
+            array[i] = operator.apply((T) array[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a fail-fast iterator over the elements in order.
+     * The iterator only holds an index, so when it does not escape a loop the
+     * JIT can scalar-replace it and the traversal allocates nothing.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the backing array that splits in half, so parallel
+     * streams divide the work into equal ranges without copying.
+     * @return A SIZED and SUBSIZED spliterator over the elements.
+     */
+    public Spliterator<T> spliterator() {
+        return new ArraySpliterator(0, -1, 0);
+    }
+
+    /**
+     * Spliterator over the range [index, fence) of the backing array. The fence is
+     * bound to the size on first use, so changes made between creating the stream
+     * and running it are seen. Changes made while it runs cause a
+     * ConcurrentModificationException.
+     */
+    private class ArraySpliterator implements Spliterator<T> {
+        private int index; // Next index to visit
+        private int fence; // One past the last index, -1 until bound
+        private int expectedModCount;
+
+        ArraySpliterator(int index, int fence, int expectedModCount) {
+            this.index = index;
+            this.fence = fence;
+            this.expectedModCount = expectedModCount;
+        }
+
+        /**
+         * Binds the fence to the current size on first use.
+         * @return The fence.
+         */
+        private int getFence() {
+            if (fence < 0) {
+                expectedModCount = modCount;
+                fence = size;
+            }
+            return fence;
+        }
+
+        public Spliterator<T> trySplit() {
+            int high = getFence();
+            int low = index;
+            int middle = (low + high) >>> 1;
+            if (low >= middle) {
+                return null; // Too small to split
+            }
+            index = middle;
+            return new ArraySpliterator(low, middle, expectedModCount);
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int high = getFence();
+            if (index >= high) {
+                return false;
+            }
+            T element = (T) elements[index++];
+            action.accept(element);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            int high = getFence();
+            Object[] array = elements;
+            for (int i = index; i < high; i++) {
+                action.accept((T) array[i]);
+            }
+            index = high;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public long estimateSize() {
+            return getFence() - index;
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * Iterator over the backing array that throws ConcurrentModificationException
+     * once the list is structurally changed by anything other than its own remove().
+     */
+    private class Itr implements Iterator<T> {
+        private int cursor; // Index of the next element to return
+        private int lastReturned = -1; // Index of the last element returned, -1 if none
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= size) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor++;
+            return (T) elements[lastReturned];
+        }
+
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            MyArrayList.this.remove(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
 }
\ No newline at end of file
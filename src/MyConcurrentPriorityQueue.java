@@ -0,0 +1,232 @@
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * @brief A thread-safe priority queue built from several MinHeap shards (a MultiQueue).
+ * Each shard is a MinHeap with its own lock, and its current minimum is cached
+ * in a volatile field so that other threads can compare shards without locking.
+ * Inserts go to a random shard whose lock is free.
+ *
+ * In relaxed mode, extractMin looks at two random shards and takes the smaller
+ * of their minimums. The result is close to the global minimum but not always
+ * equal to it, and threads skip busy shards instead of waiting. In strict mode,
+ * extractMin locks every shard in order and takes the true global minimum, so
+ * the queue behaves exactly like a single locked MinHeap while inserts still
+ * spread across shards.
+ */
+public class MyConcurrentPriorityQueue<T extends Comparable<T>> {
+    private static final int shards_per_thread = 2; // Shard count used by the default constructor
+
+    /**
+     * @brief One MinHeap and the lock that guards it.
+     */
+    private static final class Shard<E extends Comparable<E>> {
+        final ReentrantLock lock = new ReentrantLock();
+        final MinHeap<E> heap = new MinHeap<>();
+        volatile E top; // Minimum of heap, or null if the heap is empty
+
+        /**
+         * @brief Refreshes the cached minimum. Must be called with the lock held.
+         */
+        void updateTop() {
+            top = heap.isEmpty() ? null : heap.peek();
+        }
+    }
+
+    private final Shard<T>[] shards;
+    private final boolean strict;
+
+    /**
+     * @brief Constructs a relaxed queue with two shards per available processor.
+     */
+    public MyConcurrentPriorityQueue() {
+        this(Runtime.getRuntime().availableProcessors() * shards_per_thread, false);
+    }
+
+    /**
+     * @brief Constructs an empty queue.
+     * @param shardCount The number of MinHeap shards. About twice the number of threads works well.
+     * @param strict true to always extract the global minimum, false for the relaxed pick-two order.
+     * @throws IllegalArgumentException if shardCount is not positive.
+     */
+    public MyConcurrentPriorityQueue(int shardCount, boolean strict) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        shards = (Shard<T>[]) new Shard<?>[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.strict = strict;
+    }
+
+    /**
+     * @brief Checks if the queue is strict.
+     * @return true if extractMin always returns the global minimum.
+     */
+    public boolean isStrict() {
+        return strict;
+    }
+
+    /**
+     * @brief Checks if the queue is empty. The value is only a snapshot while other threads are active.
+     * @return true if no shard holds an element, otherwise false.
+     */
+    public boolean isEmpty() {
+        for (Shard<T> shard : shards) {
+            if (shard.top != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @brief Returns the number of elements in the queue. The value is only a snapshot while other threads are active.
+     * @return The total size of all shards.
+     */
+    public int size() {
+        int total = 0;
+        for (Shard<T> shard : shards) {
+            shard.lock.lock();
+            try {
+                total += shard.heap.size();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @brief Inserts an element into a random shard whose lock is free.
+     * If every shard tried is busy (for example during a strict extractMin), the
+     * thread waits for the lock of the last shard it picked instead of spinning.
+     * @param element The element to insert.
+     * @throws NullPointerException if the element is null.
+     */
+    public void insert(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Shard<T> shard = shards[random.nextInt(shards.length)];
+        for (int attempt = 1; !shard.lock.tryLock(); attempt++) {
+            if (attempt >= shards.length) {
+                shard.lock.lock();
+                break;
+            }
+            shard = shards[random.nextInt(shards.length)];
+        }
+        try {
+            shard.heap.insert(element);
+            shard.updateTop();
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    /**
+     * @brief Removes and returns the minimum element, or null if the queue is empty.
+     * In relaxed mode the element is the smaller minimum of two random shards.
+     * @return The removed element, or null if every shard is empty.
+     */
+    public T poll() {
+        return strict ? pollStrict() : pollRelaxed();
+    }
+
+    /**
+     * @brief Removes and returns the minimum element.
+     * In relaxed mode the element is the smaller minimum of two random shards.
+     * @return The removed element.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T extractMin() {
+        T element = poll();
+        if (element == null) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Takes the smaller minimum of two random shards, retrying when a lock is busy or a shard was emptied meanwhile.
+     * @return The removed element, or null if every shard is empty.
+     */
+    private T pollRelaxed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (true) {
+            Shard<T> first = shards[random.nextInt(shards.length)];
+            Shard<T> second = shards[random.nextInt(shards.length)];
+            T firstTop = first.top;
+            T secondTop = second.top;
+            Shard<T> chosen;
+            if (firstTop == null && secondTop == null) {
+                chosen = anyNonEmpty();
+                if (chosen == null) {
+                    return null;
+                }
+            } else if (secondTop == null || (firstTop != null && firstTop.compareTo(secondTop) <= 0)) {
+                chosen = first;
+            } else {
+                chosen = second;
+            }
+
+            if (chosen.lock.tryLock()) {
+                try {
+                    if (!chosen.heap.isEmpty()) {
+                        T min = chosen.heap.extractMin();
+                        chosen.updateTop();
+                        return min;
+                    }
+                } finally {
+                    chosen.lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Finds a shard that currently holds an element.
+     * @return A non-empty shard, or null if all shards are empty.
+     */
+    private Shard<T> anyNonEmpty() {
+        int start = ThreadLocalRandom.current().nextInt(shards.length);
+        for (int i = 0; i < shards.length; i++) {
+            Shard<T> shard = shards[(start + i) % shards.length];
+            if (shard.top != null) {
+                return shard;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @brief Locks every shard in index order and removes the global minimum.
+     * @return The removed element, or null if every shard is empty.
+     */
+    private T pollStrict() {
+        int locked = 0;
+        try {
+            Shard<T> best = null;
+            for (Shard<T> shard : shards) {
+                shard.lock.lock();
+                locked++;
+                if (!shard.heap.isEmpty() && (best == null || shard.heap.peek().compareTo(best.heap.peek()) < 0)) {
+                    best = shard;
+                }
+            }
+            if (best == null) {
+                return null;
+            }
+            T min = best.heap.extractMin();
+            best.updateTop();
+            return min;
+        } finally {
+            for (int i = 0; i < locked; i++) {
+                shards[i].lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,256 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+
+/**
+ * @brief A bounded lock-free queue for many producer and many consumer threads.
+ * Every slot of the ring buffer carries a sequence number that tells producers
+ * when the slot is free and consumers when it holds an element, so threads only
+ * contend on a single compare-and-set of the head or tail counter. The counters
+ * live in separate padded objects so that producers and consumers do not
+ * invalidate each other's cache line. Null elements are not allowed.
+ */
+public class MyConcurrentQueue<T> {
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle COUNTER;
+    private static final int spin_attempts = 64; // Busy-wait rounds before yielding
+    private static final int yield_attempts = 128; // Rounds before parking
+    private static final long max_park_nanos = 1_000_000L; // Longest single park while blocking
+
+    static {
+        try {
+            COUNTER = MethodHandles.lookup().findVarHandle(PaddedCounter.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @brief A counter padded on both sides so it sits alone on its cache line.
+     */
+    private static final class PaddedCounter {
+        long p01, p02, p03, p04, p05, p06, p07;
+        volatile long value;
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    private final Object[] buffer;
+    private final long[] sequences;
+    private final int mask;
+    private final PaddedCounter head = new PaddedCounter(); // Next position to consume
+    private final PaddedCounter tail = new PaddedCounter(); // Next position to produce
+
+    /**
+     * @brief Constructs an empty queue. The capacity is rounded up to a power of two.
+     * @param capacity The minimum number of elements the queue can hold.
+     * @throws IllegalArgumentException if the capacity is smaller than 2 or larger than 2^30.
+     */
+    public MyConcurrentQueue(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        buffer = new Object[size];
+        sequences = new long[size];
+        mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences[i] = i; // Slot i is free for the producer at position i
+        }
+    }
+
+    /**
+     * @brief Returns the number of elements the queue can hold.
+     * @return The capacity of the queue.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @brief Returns the number of elements in the queue. The value is only a snapshot while other threads are active.
+     * @return The current size of the queue.
+     */
+    public int size() {
+        long consumed = (long) COUNTER.getVolatile(head);
+        long produced = (long) COUNTER.getVolatile(tail);
+        return (int) Math.max(0, Math.min(produced - consumed, buffer.length));
+    }
+
+    /**
+     * @brief Checks if the queue is empty. The value is only a snapshot while other threads are active.
+     * @return true if the queue has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @brief Inserts an element at the back of the queue if there is room.
+     * @param element The element to add.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if the element is null.
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        long position = (long) COUNTER.getVolatile(tail);
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, index);
+            long difference = sequence - position;
+            if (difference == 0) {
+                if (COUNTER.compareAndSet(tail, position, position + 1)) {
+                    buffer[index] = element;
+                    SEQUENCE.setRelease(sequences, index, position + 1); // Publish to consumers
+                    return true;
+                }
+                position = (long) COUNTER.getVolatile(tail);
+            } else if (difference < 0) {
+                return false; // The slot still holds an element from the previous lap
+            } else {
+                position = (long) COUNTER.getVolatile(tail); // Another producer took this position
+            }
+        }
+    }
+
+    /**
+     * @brief Removes the front element of the queue if there is one.
+     * @return The removed element, or null if the queue is empty.
+     */
+    public T poll() {
+        long position = (long) COUNTER.getVolatile(head);
+        while (true) {
+            int index = (int) position & mask;
+            long sequence = (long) SEQUENCE.getAcquire(sequences, index);
+            long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (COUNTER.compareAndSet(head, position, position + 1)) {
+                    T element = (T) buffer[index];
+                    buffer[index] = null;
+                    SEQUENCE.setRelease(sequences, index, position + buffer.length); // Free the slot for the next lap
+                    return element;
+                }
+                position = (long) COUNTER.getVolatile(head);
+            } else if (difference < 0) {
+                return null; // The producer for this position has not published yet
+            } else {
+                position = (long) COUNTER.getVolatile(head); // Another consumer took this position
+            }
+        }
+    }
+
+    /**
+     * @brief Inserts an element, waiting for room if the queue is full.
+     * @param element The element to add.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws NullPointerException if the element is null.
+     */
+    public void put(T element) throws InterruptedException {
+        for (int attempt = 0; !offer(element); attempt++) {
+            backOff(attempt, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * @brief Inserts an element, waiting up to the given time for room if the queue is full.
+     * @param element The element to add.
+     * @param timeout How long to wait.
+     * @param unit The unit of the timeout.
+     * @return true if the element was added, false if the time ran out first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     * @throws NullPointerException if the element is null.
+     */
+    public boolean offer(T element, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (int attempt = 0; !offer(element); attempt++) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return false;
+            }
+            backOff(attempt, remaining);
+        }
+        return true;
+    }
+
+    /**
+     * @brief Removes the front element, waiting for one if the queue is empty.
+     * @return The removed element.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public T take() throws InterruptedException {
+        T element;
+        for (int attempt = 0; (element = poll()) == null; attempt++) {
+            backOff(attempt, Long.MAX_VALUE);
+        }
+        return element;
+    }
+
+    /**
+     * @brief Removes the front element, waiting up to the given time for one if the queue is empty.
+     * @param timeout How long to wait.
+     * @param unit The unit of the timeout.
+     * @return The removed element, or null if the time ran out first.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public T poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        T element;
+        for (int attempt = 0; (element = poll()) == null; attempt++) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            backOff(attempt, remaining);
+        }
+        return element;
+    }
+
+    /**
+     * @brief Enqueues an element at the back of the queue.
+     * @param element The element to add to the queue.
+     * @return The added element.
+     * @throws IllegalStateException if the queue is full.
+     */
+    public T enqueue(T element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Dequeues the front element from the queue.
+     * @return The removed element.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T dequeue() {
+        T element = poll();
+        if (element == null) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Waits a little before retrying: spins first, then yields, then parks for growing periods.
+     * @param attempt The number of failed attempts so far.
+     * @param maxNanos The longest time the thread may park.
+     * @throws InterruptedException if the thread has been interrupted.
+     */
+    private static void backOff(int attempt, long maxNanos) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        if (attempt < spin_attempts) {
+            Thread.onSpinWait();
+        } else if (attempt < yield_attempts) {
+            Thread.yield();
+        } else {
+            int shift = Math.min(attempt - yield_attempts, 10);
+            LockSupport.parkNanos(Math.min(Math.min(1_000L << shift, max_park_nanos), maxNanos));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * @brief An unbounded lock-free stack (a Treiber stack) with an elimination array.
+ * push and pop compare-and-set a single top pointer. When that fails because
+ * other threads are changing the top, the thread moves to a small array of
+ * exchange slots instead of retrying at once: a pusher parks its node in a free
+ * slot for a moment, and a popper that finds a parked node takes it. Such a
+ * push/pop pair cancels out without touching the top pointer, so contention on
+ * it drops as more threads push and pop together. Null elements are not allowed.
+ */
+public class MyConcurrentStack<T> {
+    private static final VarHandle TOP;
+    private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int max_slots = 64; // Upper bound on the elimination array length
+    private static final int elimination_spins = 128; // Rounds a pusher waits in a slot for a popper
+
+    static {
+        try {
+            TOP = MethodHandles.lookup().findVarHandle(MyConcurrentStack.class, "top", Node.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @brief A stack node. next is only written before the node is published.
+     */
+    private static final class Node<E> {
+        final E item;
+        Node<E> next;
+
+        Node(E item) {
+            this.item = item;
+        }
+    }
+
+    private volatile Node<T> top;
+    private final Object[] slots; // Parked nodes waiting for a popper, or null
+
+    /**
+     * @brief Constructs an empty stack with one elimination slot per processor, up to max_slots.
+     */
+    public MyConcurrentStack() {
+        slots = new Object[Math.min(max_slots, Math.max(1, Runtime.getRuntime().availableProcessors()))];
+    }
+
+    /**
+     * @brief Checks if the stack is empty. The value is only a snapshot while other threads are active.
+     * @return true if the stack has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return top == null;
+    }
+
+    /**
+     * @brief Counts the elements by walking the stack. O(n), and only a snapshot while other threads are active.
+     * @return The number of elements.
+     */
+    public int size() {
+        int count = 0;
+        for (Node<T> node = top; node != null; node = node.next) {
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * @brief Pushes an element onto the stack.
+     * @param element The element to push.
+     * @return The pushed element.
+     * @throws NullPointerException if the element is null.
+     */
+    public T push(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        Node<T> node = new Node<>(element);
+        while (true) {
+            Node<T> current = top;
+            node.next = current;
+            if (TOP.compareAndSet(this, current, node)) {
+                return element;
+            }
+            if (eliminatePush(node)) {
+                return element; // A popper took the node directly
+            }
+        }
+    }
+
+    /**
+     * @brief Parks a node in a random free slot and waits briefly for a popper to take it.
+     * @param node The node being pushed.
+     * @return true if a popper took the node, false if the push must be retried on the stack.
+     */
+    private boolean eliminatePush(Node<T> node) {
+        int index = ThreadLocalRandom.current().nextInt(slots.length);
+        if (!SLOT.compareAndSet(slots, index, null, node)) {
+            return false; // Slot in use
+        }
+        for (int spin = 0; spin < elimination_spins; spin++) {
+            if (SLOT.getAcquire(slots, index) != node) {
+                return true;
+            }
+            Thread.onSpinWait();
+        }
+        // Withdraw the offer; failing means a popper took it in the meantime
+        return !SLOT.compareAndSet(slots, index, node, null);
+    }
+
+    /**
+     * @brief Removes the top element if there is one.
+     * @return The removed element, or null if the stack is empty.
+     */
+    public T poll() {
+        while (true) {
+            Node<T> current = top;
+            if (current == null) {
+                return null;
+            }
+            if (TOP.compareAndSet(this, current, current.next)) {
+                return current.item;
+            }
+            Node<T> parked = eliminatePop();
+            if (parked != null) {
+                return parked.item;
+            }
+        }
+    }
+
+    /**
+     * @brief Takes a node parked by a pusher from a random slot.
+     * @return The taken node, or null if the slot held none.
+     */
+    private Node<T> eliminatePop() {
+        int index = ThreadLocalRandom.current().nextInt(slots.length);
+        Object parked = SLOT.getAcquire(slots, index);
+        if (parked != null && SLOT.compareAndSet(slots, index, parked, null)) {
+            return (Node<T>) parked;
+        }
+        return null;
+    }
+
+    /**
+     * @brief Removes the top element.
+     * @return The removed element.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public T pop() {
+        T element = poll();
+        if (element == null) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Returns the top element without removing it.
+     * @return The top element.
+     * @throws IllegalStateException if the stack is empty.
+     */
+    public T peek() {
+        Node<T> current = top;
+        if (current == null) {
+            throw new IllegalStateException("Stack is empty");
+        }
+        return current.item;
+    }
+}
@@ -0,0 +1,535 @@
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+
+/**
+ * @brief A generic doubly linked list implementation.
+ */
+public class MyLinkedList<T> implements MyList<T> {
+    private static class MyNode<E> {
+        E element;
+        MyNode<E> next;
+        MyNode<E> prev;
+
+        MyNode(E element, MyNode<E> prev, MyNode<E> next) {
+            this.element = element;
+            this.prev = prev;
+            this.next = next;
+        }
+    }
+
+    private MyNode<T> head;
+    private MyNode<T> tail;
+    private int size;
+    private int modCount; // Number of structural changes, checked by iterators and bulk traversals
+    private static final int batch_unit = 1 << 10; // Growth of the batch copied out by each split
+    private static final int max_batch = 1 << 25; // Largest batch copied out by one split
+
+    /**
+     * @brief Constructs an empty linked list.
+     */
+    public MyLinkedList() {
+        head = null;
+        tail = null;
+        size = 0;
+    }
+
+    /**
+     * @brief Retrieves a node at a given index.
+     * @param index The index of the node.
+     * @return The node at the specified index.
+     */
+    private MyNode<T> getNode(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+
+        MyNode<T> current;
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.NODES_WALKED, Math.min(index, size - 1 - index));
+        }
+        if (index < size / 2) {
+            current = head;
+            for (int i = 0; i < index; i++) {
+                current = current.next;
+            }
+        } else {
+            current = tail;
+            for (int i = size - 1; i > index; i--) {
+                current = current.prev;
+            }
+        }
+
+        return current;
+    }
+
+    /**
+     * @brief Disconnects a node from the list.
+     * @param node The node to unlink from the list.
+     */
+    private void unlink(MyNode<T> node) {
+        MyNode<T> prev = node.prev;
+        MyNode<T> next = node.next;
+
+        if (prev == null) {
+            head = next;
+        } else {
+            prev.next = next;
+        }
+
+        if (next == null) {
+            tail = prev;
+        } else {
+            next.prev = prev;
+        }
+
+
+        node.element = null;
+        node.next = null;
+        node.prev = null;
+
+        size--;
+        modCount++;
+    }
+
+    /**
+     * @brief Checks if the linked list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        addLast(item);
+    }
+
+    /**
+     * @brief Sets the value of the item at a specific index.
+     * @param index The index to set the item at.
+     * @param item The new item.
+     */
+    public void set(int index, T item) {
+        getNode(index).element = item;
+    }
+
+    /**
+     * @brief Inserts an item at a specified index.
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     */
+    public void add(int index, T item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+
+        if (index == size) {
+            addLast(item);
+        } else if (index == 0) {
+            addFirst(item);
+        } else {
+            MyNode<T> succ = getNode(index);
+            MyNode<T> pred = succ.prev;
+            MyNode<T> newNode = new MyNode<>(item, pred, succ);
+
+            pred.next = newNode;
+            succ.prev = newNode;
+
+            size++;
+            modCount++;
+        }
+    }
+
+    /**
+     * @brief Inserts an item at the beginning of the list.
+     * @param item The item to insert.
+     */
+    public void addFirst(T item) {
+        if (isEmpty()) {
+            head = tail = new MyNode<>(item, null, null);
+        } else {
+            MyNode<T> newNode = new MyNode<>(item, null, head);
+            head.prev = newNode;
+            head = newNode;
+        }
+
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @brief Inserts an item at the end of the list.
+     * @param item The item to insert.
+     */
+    public void addLast(T item) {
+        if (isEmpty()) {
+            head = tail = new MyNode<>(item, null, null);
+        } else {
+            MyNode<T> newNode = new MyNode<>(item, tail, null);
+            tail.next = newNode;
+            tail = newNode;
+        }
+
+        size++;
+        modCount++;
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     */
+    public T get(int index) {
+        return getNode(index).element;
+    }
+
+    /**
+     * @brief Gets the first item in the list.
+     * @return The first item.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return head.element;
+    }
+
+    /**
+     * @brief Gets the last item in the list.
+     * @return The last item.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return tail.element;
+    }
+
+    /**
+     * @brief Removes an item from a specific index.
+     * @param index The index to remove the item from.
+     */
+    public void remove(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        MyNode<T> nodeToRemove = getNode(index);
+        unlink(nodeToRemove);
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     */
+    public void removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        unlink(head);
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        unlink(tail);
+    }
+
+    /**
+     * @brief Sorts the list in natural order.
+     * The elements are copied out, sorted with TimSort and written back into the
+     * existing nodes, so no node is allocated or relinked.
+     * @throws ClassCastException if the elements are not mutually comparable.
+     */
+    public void sort() {
+        Object[] array = toArray();
+        Arrays.sort(array);
+        int index = 0;
+        for (MyNode<T> current = head; current != null; current = current.next) {
+            current.element = (T) array[index++];
+        }
+        modCount++;
+    }
+
+    /**
+     * @brief Finds the first position of an object, walking the nodes from the head.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        int index = 0;
+        for (MyNode<T> current = head; current != null; current = current.next) {
+            if (object.equals(current.element)) {
+                return index;
+            }
+            index++;
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object, walking the nodes from the tail.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        int index = size - 1;
+        for (MyNode<T> current = tail; current != null; current = current.prev) {
+            if (object.equals(current.element)) {
+                return index;
+            }
+            index--;
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the list.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Converts the list to an array.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int index = 0;
+        for (MyNode<T> current = head; current != null; current = current.next) {
+            array[index++] = current.element;
+        }
+        return array;
+    }
+
+    /**
+     * @brief Clears all elements from the list.
+     */
+    public void clear() {
+        while (head != null) {
+            MyNode<T> next = head.next;
+            head.prev = null;
+            head.next = null;
+            head = next;
+        }
+        tail = null;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Performs an action for each element, following the node chain directly.
+     * @param action The action to perform.
+     * @throws ConcurrentModificationException if the action changes the list structure.
+     */
+    public void forEach(Consumer<? super T> action) {
+        int expectedModCount = modCount;
+        for (MyNode<T> current = head; current != null && modCount == expectedModCount; current = current.next) {
+            action.accept(current.element);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * @brief Removes every element matching a predicate in one walk, unlinking the matching nodes.
+     * @param filter The predicate selecting the elements to remove.
+     * @return true if any element was removed.
+     * @throws ConcurrentModificationException if the predicate changes the list structure.
+     */
+    public boolean removeIf(Predicate<? super T> filter) {
+        boolean removed = false;
+        int expectedModCount = modCount;
+        MyNode<T> current = head;
+        while (current != null) {
+            MyNode<T> next = current.next; // unlink clears the node's links
+            boolean matches = filter.test(current.element);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (matches) {
+                unlink(current);
+                expectedModCount = modCount;
+                removed = true;
+            }
+            current = next;
+        }
+        return removed;
+    }
+
+    /**
+     * @brief Replaces each element with the result of applying an operator to it, in place.
+     * @param operator The operator to apply.
+     * @throws ConcurrentModificationException if the operator changes the list structure.
+     */
+    public void replaceAll(UnaryOperator<T> operator) {
+        int expectedModCount = modCount;
+        for (MyNode<T> current = head; current != null && modCount == expectedModCount; current = current.next) {
+            current.element = operator.apply(current.element);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * @brief Returns a fail-fast iterator that follows the node chain, so a full traversal is O(n).
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Itr();
+    }
+
+    /**
+     * @brief Returns a spliterator that splits by copying batches of nodes into arrays.
+     * A linked list cannot be split in the middle without walking to it, so each
+     * trySplit hands out the next batch of elements as an array spliterator, with
+     * batches growing by batch_unit so that large lists produce few splits.
+     * @return A SIZED spliterator over the elements.
+     */
+    public Spliterator<T> spliterator() {
+        return new BatchSpliterator();
+    }
+
+    /**
+     * @brief Spliterator that walks the nodes from the head and splits off array batches.
+     * The start node and remaining count are bound on first use.
+     */
+    private class BatchSpliterator implements Spliterator<T> {
+        private MyNode<T> current;
+        private int remaining = -1; // -1 until bound
+        private int batch; // Size of the last batch split off
+        private int expectedModCount;
+
+        /**
+         * @brief Binds the start node and size on first use.
+         * @return The number of elements not yet visited.
+         */
+        private int getRemaining() {
+            if (remaining < 0) {
+                current = head;
+                remaining = size;
+                expectedModCount = modCount;
+            }
+            return remaining;
+        }
+
+        public Spliterator<T> trySplit() {
+            int left = getRemaining();
+            if (left <= 1 || current == null) {
+                return null;
+            }
+            int count = Math.min(Math.min(batch + batch_unit, max_batch), left);
+            Object[] array = new Object[count];
+            int copied = 0;
+            while (copied < count && current != null) {
+                array[copied++] = current.element;
+                current = current.next;
+            }
+            batch = copied;
+            remaining -= copied;
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return Spliterators.spliterator(array, 0, copied, Spliterator.ORDERED);
+        }
+
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (getRemaining() <= 0 || current == null) {
+                return false;
+            }
+            T element = current.element;
+            current = current.next;
+            remaining--;
+            action.accept(element);
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            return true;
+        }
+
+        public void forEachRemaining(Consumer<? super T> action) {
+            int left = getRemaining();
+            MyNode<T> node = current;
+            current = null;
+            remaining = 0;
+            for (; node != null && left > 0; node = node.next, left--) {
+                action.accept(node.element);
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        public long estimateSize() {
+            return getRemaining();
+        }
+
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    /**
+     * @brief Iterator over the nodes that throws ConcurrentModificationException
+     * once the list is structurally changed by anything other than its own remove().
+     */
+    private class Itr implements Iterator<T> {
+        private MyNode<T> next = head;
+        private MyNode<T> lastReturned;
+        private int expectedModCount = modCount;
+
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        public T next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = next;
+            next = next.next;
+            return lastReturned.element;
+        }
+
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            unlink(lastReturned);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+}
@@ -1,9 +1,16 @@
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface MyList <T>  extends Iterable <T> {
     void add (T item);
     void set ( int index ,T item);
     void add (int index,T item);
     T get (int index);
-    T gerFirst ();
+    T getFirst ();
     T getLast();
     void remove (int index );
     void removeFirst();
@@ -16,4 +23,79 @@ public interface MyList <T>  extends Iterable <T> {
     void clear();
     int size ();
 
+    /**
+     * @brief Removes every element matching a predicate.
+     * This default filters a copy and then rebuilds the list from it; implementations override it
+     * with a single in-place pass. If the filter throws, the list is unchanged. If an add throws
+     * during the rebuild, the original elements are put back.
+     * @param filter The predicate selecting the elements to remove.
+     * @return true if any element was removed.
+     */
+    default boolean removeIf(Predicate<? super T> filter) {
+        Object[] array = toArray();
+        Object[] kept = new Object[array.length];
+        int count = 0;
+        for (Object element : array) {
+            if (!filter.test((T) element)) {
+                kept[count++] = element;
+            }
+        }
+        if (count == array.length) {
+            return false;
+        }
+        clear();
+        try {
+            for (int i = 0; i < count; i++) {
+                add((T) kept[i]);
+            }
+        } catch (RuntimeException e) {
+            clear();
+            for (Object element : array) {
+                add((T) element);
+            }
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * @brief Replaces each element with the result of applying an operator to it.
+     * This default applies the operator to a copy first and then writes the results back with set,
+     * so the list is unchanged if the operator throws. Implementations override it to write in place.
+     * @param operator The operator to apply.
+     */
+    default void replaceAll(UnaryOperator<T> operator) {
+        Object[] array = toArray();
+        for (int i = 0; i < array.length; i++) {
+            array[i] = operator.apply((T) array[i]);
+        }
+        for (int i = 0; i < array.length; i++) {
+            set(i, (T) array[i]);
+        }
+    }
+
+    /**
+     * @brief Returns a spliterator that knows the size of the list.
+     * This default wraps iterator(); implementations override it to split their own storage.
+     * @return A spliterator over the elements in order.
+     */
+    default Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED);
+    }
+
+    /**
+     * @brief Returns a sequential stream over the elements, read directly through spliterator().
+     * @return A sequential stream.
+     */
+    default Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @brief Returns a parallel stream over the elements, split through spliterator().
+     * @return A parallel stream.
+     */
+    default Stream<T> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
 }
@@ -1,14 +1,24 @@
 /**
  * @brief A generic queue implementation.
+ * Elements are kept in a circular MyArrayDeque, so enqueue, dequeue and peek
+ * are O(1) and do not allocate once the backing array is large enough.
  */
 public class MyQueue<T> {
-    private MyList<T> list;
+    private MyArrayDeque<T> deque;
 
     /**
-     * @brief Constructor that initializes the queue with a new linked list.
+     * @brief Constructor that initializes the queue with a new array deque.
      */
     public MyQueue() {
-        list = new MyLinkedList<>();
+        deque = new MyArrayDeque<>();
+    }
+
+    /**
+     * @brief Constructor that reserves room for the given number of elements up front.
+     * @param initialCapacity The number of elements the queue can hold before it has to grow.
+     */
+    public MyQueue(int initialCapacity) {
+        deque = new MyArrayDeque<>(initialCapacity);
     }
 
     /**
@@ -16,7 +26,7 @@ public class MyQueue<T> {
      * @return true if the queue has no elements, otherwise false.
      */
     public boolean isEmpty() {
-        return list.size() == 0;
+        return deque.isEmpty();
     }
 
     /**
@@ -27,7 +37,15 @@ public class MyQueue<T> {
         if (isEmpty()) {
             throw new IllegalStateException("Queue is empty");
         }
-        return list.get(list.size() - 1);
+        return deque.getFirst();
+    }
+
+    /**
+     * @brief Returns the number of elements in the queue.
+     * @return The current size of the queue.
+     */
+    public int size() {
+        return deque.size();
     }
 
     /**
@@ -36,7 +54,10 @@ public class MyQueue<T> {
      * @return The added element.
      */
     public T enqueue(T element) {
-        list.addFirst(element);
+        deque.addLast(element);
+        if (Instrumentation.enabled) {
+            Instrumentation.record(CollectionMetrics.Metric.QUEUE_DEPTH, deque.size());
+        }
         return element;
     }
 
@@ -49,8 +70,6 @@ public class MyQueue<T> {
         if (isEmpty()) {
             throw new IllegalStateException("Queue is empty");
         }
-        T removingElement = peek();
-        list.removeLast();
-        return removingElement;
+        return deque.removeFirst();
     }
 }
@@ -0,0 +1,221 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+
+/**
+ * @brief A bounded queue for exactly one producer thread and one consumer thread.
+ * Only the producer writes the tail and only the consumer writes the head, so
+ * no compare-and-set is needed: indices are published with release stores and
+ * read with acquire loads. Each side also caches the other side's index and only
+ * re-reads it when the cached value says the queue is full or empty, which keeps
+ * the two threads off each other's cache line most of the time. Null elements
+ * are not allowed.
+ */
+public class MySpscQueue<T> {
+    private static final VarHandle TAIL;
+    private static final VarHandle HEAD;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TAIL = lookup.findVarHandle(ProducerSide.class, "tail", long.class);
+            HEAD = lookup.findVarHandle(ConsumerSide.class, "head", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * @brief State touched by the producer, padded so it sits alone on its cache line.
+     */
+    private static final class ProducerSide {
+        long p01, p02, p03, p04, p05, p06, p07;
+        long tail; // Next position to write, published with a release store
+        long headCache; // Last head value seen by the producer
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    /**
+     * @brief State touched by the consumer, padded so it sits alone on its cache line.
+     */
+    private static final class ConsumerSide {
+        long p01, p02, p03, p04, p05, p06, p07;
+        long head; // Next position to read, published with a release store
+        long tailCache; // Last tail value seen by the consumer
+        long p11, p12, p13, p14, p15, p16, p17;
+    }
+
+    private final Object[] buffer;
+    private final int mask;
+    private final ProducerSide producer = new ProducerSide();
+    private final ConsumerSide consumer = new ConsumerSide();
+
+    /**
+     * @brief Constructs an empty queue. The capacity is rounded up to a power of two.
+     * @param capacity The minimum number of elements the queue can hold.
+     * @throws IllegalArgumentException if the capacity is smaller than 2 or larger than 2^30.
+     */
+    public MySpscQueue(int capacity) {
+        if (capacity < 2 || capacity > (1 << 30)) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        buffer = new Object[size];
+        mask = size - 1;
+    }
+
+    /**
+     * @brief Returns the number of elements the queue can hold.
+     * @return The capacity of the queue.
+     */
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @brief Returns the number of elements in the queue. The value is only a snapshot while the other thread is active.
+     * @return The current size of the queue.
+     */
+    public int size() {
+        long head = (long) HEAD.getAcquire(consumer);
+        long tail = (long) TAIL.getAcquire(producer);
+        return (int) Math.max(0, Math.min(tail - head, buffer.length));
+    }
+
+    /**
+     * @brief Checks if the queue is empty. The value is only a snapshot while the other thread is active.
+     * @return true if the queue has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @brief Inserts an element at the back of the queue if there is room. Producer thread only.
+     * @param element The element to add.
+     * @return true if the element was added, false if the queue is full.
+     * @throws NullPointerException if the element is null.
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        long tail = producer.tail;
+        if (tail - producer.headCache >= buffer.length) {
+            producer.headCache = (long) HEAD.getAcquire(consumer); // Only look at the consumer when we seem full
+            if (tail - producer.headCache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) tail & mask] = element;
+        TAIL.setRelease(producer, tail + 1);
+        return true;
+    }
+
+    /**
+     * @brief Removes the front element of the queue if there is one. Consumer thread only.
+     * @return The removed element, or null if the queue is empty.
+     */
+    public T poll() {
+        long head = consumer.head;
+        if (head >= consumer.tailCache) {
+            consumer.tailCache = (long) TAIL.getAcquire(producer); // Only look at the producer when we seem empty
+            if (head >= consumer.tailCache) {
+                return null;
+            }
+        }
+        int index = (int) head & mask;
+        T element = (T) buffer[index];
+        buffer[index] = null;
+        HEAD.setRelease(consumer, head + 1);
+        return element;
+    }
+
+    /**
+     * @brief Returns the front element without removing it. Consumer thread only.
+     * @return The front element, or null if the queue is empty.
+     */
+    public T peekOrNull() {
+        long head = consumer.head;
+        if (head >= consumer.tailCache) {
+            consumer.tailCache = (long) TAIL.getAcquire(producer);
+            if (head >= consumer.tailCache) {
+                return null;
+            }
+        }
+        return (T) buffer[(int) head & mask];
+    }
+
+    /**
+     * @brief Removes up to limit elements and hands each one to the action. Consumer thread only.
+     * The head is published once for the whole batch instead of once per element.
+     * @param action The action to run for each removed element.
+     * @param limit The largest number of elements to remove.
+     * @return The number of elements removed.
+     */
+    public int drain(Consumer<? super T> action, int limit) {
+        long head = consumer.head;
+        long available = consumer.tailCache - head;
+        if (available < limit) {
+            consumer.tailCache = (long) TAIL.getAcquire(producer);
+            available = consumer.tailCache - head;
+        }
+        int count = (int) Math.min(available, limit);
+        if (count <= 0) {
+            return 0;
+        }
+        int drained = 0;
+        try {
+            while (drained < count) {
+                int index = (int) (head + drained) & mask;
+                T element = (T) buffer[index];
+                buffer[index] = null;
+                drained++;
+                action.accept(element);
+            }
+        } finally {
+            HEAD.setRelease(consumer, head + drained); // Elements handed out so far stay consumed if the action throws
+        }
+        return drained;
+    }
+
+    /**
+     * @brief Returns the front element of the queue without removing it. Consumer thread only.
+     * @return The front element of the queue.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T peek() {
+        T element = peekOrNull();
+        if (element == null) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Enqueues an element at the back of the queue. Producer thread only.
+     * @param element The element to add to the queue.
+     * @return The added element.
+     * @throws IllegalStateException if the queue is full.
+     */
+    public T enqueue(T element) {
+        if (!offer(element)) {
+            throw new IllegalStateException("Queue is full");
+        }
+        return element;
+    }
+
+    /**
+     * @brief Dequeues the front element from the queue. Consumer thread only.
+     * @return The removed element.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T dequeue() {
+        T element = poll();
+        if (element == null) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        return element;
+    }
+}
@@ -17,7 +17,7 @@ public class MyStack<T extends Comparable<T>> {
 
 
     public T peek() {
-        if (list.exists(list)) {
+        if (isEmpty()) {
             throw new IllegalStateException("Stack is empty");
         }
         return list.get(list.size() - 1);
@@ -25,7 +25,7 @@ public class MyStack<T extends Comparable<T>> {
 
 
     public T pop() {
-        if (list.exists(list)) {
+        if (isEmpty()) {
             throw new IllegalStateException("Stack is empty");
         }
         T removingElement = peek();
@@ -0,0 +1,305 @@
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+
+/**
+ * @brief A list of fixed-width records stored in direct memory outside the Java heap.
+ * Elements are encoded by a RecordCodec into direct ByteBuffer chunks, so the
+ * garbage collector never has to trace or copy them. The list grows by adding
+ * chunks instead of copying into a larger array, and close() frees the memory
+ * straight away instead of waiting for the buffers to be collected.
+ * Supports the add/get/set/remove/size parts of MyList.
+ */
+public class OffHeapList<T> implements AutoCloseable {
+    private static final int default_chunk_bytes = 1 << 20; // Target size of one chunk
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final RecordCodec<T> codec;
+    private final int recordSize;
+    private final int chunkShift; // log2 of the number of records per chunk
+    private final int chunkMask;
+    private ByteBuffer[] chunks;
+    private int chunkCount;
+    private int size;
+    private boolean closed;
+
+    /**
+     * @brief Constructs an empty list with chunks of about one megabyte.
+     * @param codec The codec that converts elements to records.
+     */
+    public OffHeapList(RecordCodec<T> codec) {
+        this(codec, Integer.highestOneBit(Math.max(1, default_chunk_bytes / codec.recordSize())));
+    }
+
+    /**
+     * @brief Constructs an empty list.
+     * @param codec The codec that converts elements to records.
+     * @param recordsPerChunk The number of records in each chunk. Must be a power of two.
+     * @throws IllegalArgumentException if recordsPerChunk is not a power of two or a chunk would exceed 2 GB.
+     */
+    public OffHeapList(RecordCodec<T> codec, int recordsPerChunk) {
+        if (recordsPerChunk <= 0 || Integer.bitCount(recordsPerChunk) != 1) {
+            throw new IllegalArgumentException("Records per chunk must be a power of two");
+        }
+        if ((long) recordsPerChunk * codec.recordSize() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Chunk is too large");
+        }
+        this.codec = codec;
+        this.recordSize = codec.recordSize();
+        this.chunkShift = Integer.numberOfTrailingZeros(recordsPerChunk);
+        this.chunkMask = recordsPerChunk - 1;
+        this.chunks = new ByteBuffer[4];
+        this.chunkCount = 0;
+        this.size = 0;
+    }
+
+    /**
+     * @brief Looks up sun.misc.Unsafe.invokeCleaner, which frees a direct buffer immediately.
+     * @return A handle that takes the Unsafe instance and a buffer, or null if it is not available.
+     */
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class));
+            return handle.bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // The buffers are then freed when they are garbage collected
+        }
+    }
+
+    /**
+     * @brief Throws if the list has been closed.
+     * @throws IllegalStateException if close() has been called.
+     */
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("List is closed");
+        }
+    }
+
+    /**
+     * @brief Throws if the index is not in the list.
+     * @param index The index to check.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**
+     * @brief Allocates one more chunk at the end of the directory.
+     * @throws IllegalStateException if the list would exceed Integer.MAX_VALUE records.
+     */
+    private void addChunk() {
+        if (((long) chunkCount + 1) << chunkShift > Integer.MAX_VALUE) {
+            throw new IllegalStateException("List is too large");
+        }
+        if (chunkCount == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkCount * 2); // Only the directory is copied, never the records
+        }
+        chunks[chunkCount++] = ByteBuffer.allocateDirect((chunkMask + 1) * recordSize).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list is empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of bytes of direct memory held by the list.
+     * @return The allocated off-heap bytes.
+     */
+    public long allocatedBytes() {
+        return (long) chunkCount * (chunkMask + 1) * recordSize;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        checkOpen();
+        if ((size >>> chunkShift) == chunkCount) {
+            addChunk();
+        }
+        codec.write(chunks[size >>> chunkShift], (size & chunkMask) * recordSize, item);
+        size++;
+    }
+
+    /**
+     * @brief Sets the value at a specific index.
+     * @param index The index to set the item at.
+     * @param item The item to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, T item) {
+        checkOpen();
+        checkIndex(index);
+        codec.write(chunks[index >>> chunkShift], (index & chunkMask) * recordSize, item);
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to retrieve the item from.
+     * @return A newly decoded copy of the item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        checkOpen();
+        checkIndex(index);
+        return codec.read(chunks[index >>> chunkShift], (index & chunkMask) * recordSize);
+    }
+
+    /**
+     * @brief Retrieves the first item in the list.
+     * @return The first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(0);
+    }
+
+    /**
+     * @brief Retrieves the last item in the list.
+     * @return The last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(size - 1);
+    }
+
+    /**
+     * @brief Removes the item at a specific index, moving the later records back by one.
+     * @param index The index to remove the item from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        checkOpen();
+        checkIndex(index);
+        shiftLeft(chunks, chunkShift, recordSize, index, size);
+        size--;
+        releaseUnusedChunks();
+    }
+
+    /**
+     * @brief Moves every record after index back by one slot, across chunk boundaries.
+     * @param chunks The chunks holding the records.
+     * @param chunkShift log2 of the number of records per chunk.
+     * @param recordSize The width of one record in bytes.
+     * @param index The index of the record to overwrite.
+     * @param size The number of records before the removal.
+     */
+    static void shiftLeft(ByteBuffer[] chunks, int chunkShift, int recordSize, int index, int size) {
+        int chunkMask = (1 << chunkShift) - 1;
+        int lastChunk = (size - 1) >>> chunkShift;
+        int chunk = index >>> chunkShift;
+        int slot = index & chunkMask;
+        while (true) {
+            ByteBuffer buffer = chunks[chunk];
+            int lastSlot = chunk == lastChunk ? (size - 1) & chunkMask : chunkMask;
+            if (slot < lastSlot) {
+                // compact() moves position..limit to the start of the slice, so overlapping is safe
+                ByteBuffer window = buffer.slice(slot * recordSize, (lastSlot - slot + 1) * recordSize);
+                window.position(recordSize);
+                window.compact();
+            }
+            if (chunk == lastChunk) {
+                break;
+            }
+            buffer.put(chunkMask * recordSize, chunks[chunk + 1], 0, recordSize); // Pull in the next chunk's first record
+            chunk++;
+            slot = 0;
+        }
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        checkOpen();
+        size--;
+        releaseUnusedChunks();
+    }
+
+    /**
+     * @brief Frees chunks at the end that hold no records, keeping one spare so that add/remove at a boundary does not thrash.
+     */
+    private void releaseUnusedChunks() {
+        int needed = (size + chunkMask) >>> chunkShift;
+        while (chunkCount > needed + 1) {
+            free(chunks[--chunkCount]);
+            chunks[chunkCount] = null;
+        }
+    }
+
+    /**
+     * @brief Removes all elements and frees all but the first chunk.
+     */
+    public void clear() {
+        checkOpen();
+        size = 0;
+        releaseUnusedChunks();
+    }
+
+    /**
+     * @brief Frees all direct memory held by the list. The list cannot be used afterwards.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        for (int i = 0; i < chunkCount; i++) {
+            free(chunks[i]);
+            chunks[i] = null;
+        }
+        chunkCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @brief Frees a direct buffer now if the JDK allows it, otherwise leaves it to the garbage collector.
+     * @param buffer The buffer to free. It must not be used afterwards.
+     */
+    static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(buffer);
+        } catch (Throwable e) {
+            // Freeing is best effort; the cleaner still runs when the buffer is collected
+        }
+    }
+}
@@ -0,0 +1,531 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+
+/**
+ * @brief An immutable vector whose updates return new versions that share structure with the old one.
+ * The elements are stored in a 32-way trie of 32-element arrays, plus a tail
+ * array holding the last 1 to 32 elements. set, add and removeLast copy only the
+ * path from the root to the changed leaf, at most log32(n) arrays of 32 slots,
+ * and every other node is shared between the versions. Because most appends and
+ * removeLast calls only touch the tail, they copy a single small array.
+ *
+ * The read methods match MyList. MyList's mutators return void, so the vector
+ * cannot implement it; its set, add and removeLast return the new version instead.
+ * A Builder appends in place for fast bulk construction and then hands its trie
+ * over to an immutable vector without copying.
+ */
+public class PersistentVector<T> implements Iterable<T> {
+    private static final int bits = 5;
+    private static final int width = 1 << bits; // Slots per node
+    private static final int mask = width - 1;
+
+    /**
+     * @brief A trie node. Nodes created by a Builder carry its token and may be changed in place by it.
+     */
+    private static final class Node {
+        final Object owner; // Token of the builder allowed to edit this node, or null
+        final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+    }
+
+    private static final Node empty_node = new Node(null, new Object[width]);
+    private static final PersistentVector<?> empty = new PersistentVector<>(0, bits, empty_node, new Object[0]);
+
+    private final int size;
+    private final int shift; // bits times the number of branch levels above the leaves
+    private final Node root;
+    private final Object[] tail; // Exact size, 1 to 32 elements unless the vector is empty
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    /**
+     * @brief Returns the empty vector.
+     * @return A vector with no elements.
+     */
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) empty;
+    }
+
+    /**
+     * @brief Returns a new builder for bulk construction.
+     * @return An empty builder.
+     */
+    public static <T> Builder<T> builder() {
+        return PersistentVector.<T>empty().toBuilder();
+    }
+
+    /**
+     * @brief Returns a builder that starts from this vector. This vector is not changed.
+     * @return A builder holding the elements of this vector.
+     */
+    public Builder<T> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    /**
+     * @brief Returns the index of the first element stored in the tail.
+     * @param size The number of elements.
+     * @return The tail offset.
+     */
+    private static int tailOffset(int size) {
+        return size < width ? 0 : ((size - 1) >>> bits) << bits;
+    }
+
+    /**
+     * @brief Returns a node that the given owner may change in place.
+     * @param owner The editing builder's token, or null for a persistent update.
+     * @param node The node to edit.
+     * @return The node itself if the owner already owns it, otherwise a copy owned by the owner.
+     */
+    private static Node editable(Object owner, Node node) {
+        if (owner != null && node.owner == owner) {
+            return node;
+        }
+        return new Node(owner, node.array.clone());
+    }
+
+    /**
+     * @brief Builds a chain of single-child nodes down to a leaf.
+     * @param owner The token for the new nodes.
+     * @param level The level of the top node.
+     * @param node The leaf to place at the bottom.
+     * @return The top node of the chain.
+     */
+    private static Node newPath(Object owner, int level, Node node) {
+        if (level == 0) {
+            return node;
+        }
+        Node path = new Node(owner, new Object[width]);
+        path.array[0] = newPath(owner, level - bits, node);
+        return path;
+    }
+
+    /**
+     * @brief Adds a full tail leaf as the last leaf of the trie, copying the path to it.
+     * @param owner The token for new nodes, or null.
+     * @param size The number of elements including the leaf being pushed.
+     * @param level The level of parent.
+     * @param parent The node to add the leaf below.
+     * @param leaf The leaf to add.
+     * @return The updated parent.
+     */
+    private static Node pushTail(Object owner, int size, int level, Node parent, Node leaf) {
+        int slot = ((size - 1) >>> level) & mask;
+        Node result = editable(owner, parent);
+        Node insert;
+        if (level == bits) {
+            insert = leaf;
+        } else {
+            Node child = (Node) parent.array[slot];
+            insert = child != null
+                    ? pushTail(owner, size, level - bits, child, leaf)
+                    : newPath(owner, level - bits, leaf);
+        }
+        result.array[slot] = insert;
+        return result;
+    }
+
+    /**
+     * @brief Replaces one element of the trie, copying the path to it.
+     * @param owner The token for new nodes, or null.
+     * @param level The level of node.
+     * @param node The node holding the index.
+     * @param index The index to replace.
+     * @param item The new element.
+     * @return The updated node.
+     */
+    private static Node setInTrie(Object owner, int level, Node node, int index, Object item) {
+        Node result = editable(owner, node);
+        if (level == 0) {
+            result.array[index & mask] = item;
+        } else {
+            int slot = (index >>> level) & mask;
+            result.array[slot] = setInTrie(owner, level - bits, (Node) node.array[slot], index, item);
+        }
+        return result;
+    }
+
+    /**
+     * @brief Removes the last leaf of the trie, copying the path to it.
+     * @param size The number of elements before the removal.
+     * @param level The level of node.
+     * @param node The node to remove the leaf below.
+     * @return The updated node, or null if it became empty.
+     */
+    private static Node popTail(int size, int level, Node node) {
+        int slot = ((size - 2) >>> level) & mask;
+        if (level > bits) {
+            Node child = popTail(size, level - bits, (Node) node.array[slot]);
+            if (child == null && slot == 0) {
+                return null;
+            }
+            Node result = editable(null, node);
+            result.array[slot] = child;
+            return result;
+        }
+        if (slot == 0) {
+            return null;
+        }
+        Node result = editable(null, node);
+        result.array[slot] = null;
+        return result;
+    }
+
+    /**
+     * @brief Returns the leaf array holding an index.
+     * @param index An index in bounds.
+     * @return The tail or the trie leaf holding the index.
+     */
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset(size)) {
+            return tail;
+        }
+        Node node = root;
+        for (int level = shift; level > 0; level -= bits) {
+            node = (Node) node.array[(index >>> level) & mask];
+        }
+        return node.array;
+    }
+
+    /**
+     * @brief Checks if the vector is empty.
+     * @return true if the vector has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the size of the vector.
+     * @return The number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index in O(log32 n).
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        return (T) leafFor(index)[index & mask];
+    }
+
+    /**
+     * @brief Gets the first item in the vector.
+     * @return The first item.
+     * @throws IllegalStateException if the vector is empty.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(0);
+    }
+
+    /**
+     * @brief Gets the last item in the vector.
+     * @return The last item.
+     * @throws IllegalStateException if the vector is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) tail[tail.length - 1];
+    }
+
+    /**
+     * @brief Returns a new version with one element replaced. This version is not changed.
+     * @param index The index to set the item at.
+     * @param item The new item.
+     * @return The new version.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public PersistentVector<T> set(int index, T item) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (index >= tailOffset(size)) {
+            Object[] newTail = tail.clone();
+            newTail[index & mask] = item;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, setInTrie(null, shift, root, index, item), tail);
+    }
+
+    /**
+     * @brief Returns a new version with an item added at the end. This version is not changed.
+     * @param item The item to add.
+     * @return The new version.
+     */
+    public PersistentVector<T> add(T item) {
+        if (size - tailOffset(size) < width) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = item;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        // The tail is full: move it into the trie and start a new one
+        Node leaf = new Node(null, tail);
+        Node newRoot;
+        int newShift = shift;
+        if ((size >>> bits) > (1 << shift)) {
+            newRoot = new Node(null, new Object[width]); // The trie is full: add a level
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, leaf);
+            newShift += bits;
+        } else {
+            newRoot = pushTail(null, size, shift, root, leaf);
+        }
+        return new PersistentVector<>(size + 1, newShift, newRoot, new Object[]{item});
+    }
+
+    /**
+     * @brief Returns a new version without the last item. This version is not changed.
+     * @return The new version.
+     * @throws IllegalStateException if the vector is empty.
+     */
+    public PersistentVector<T> removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        if (size == 1) {
+            return empty();
+        }
+        if (tail.length > 1) {
+            return new PersistentVector<>(size - 1, shift, root, Arrays.copyOf(tail, tail.length - 1));
+        }
+        // The tail becomes empty: take the last trie leaf as the new tail
+        Object[] newTail = leafFor(size - 2);
+        Node newRoot = popTail(size, shift, root);
+        int newShift = shift;
+        if (newRoot == null) {
+            newRoot = empty_node;
+        }
+        if (shift > bits && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0]; // Only one child left: drop a level
+            newShift -= bits;
+        }
+        return new PersistentVector<>(size - 1, newShift, newRoot, newTail);
+    }
+
+    /**
+     * @brief Finds the first position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the vector.
+     */
+    public int indexOf(Object object) {
+        for (int base = 0; base < size; base += width) {
+            Object[] leaf = leafFor(base);
+            int count = Math.min(width, size - base);
+            for (int i = 0; i < count; i++) {
+                if (object.equals(leaf[i])) {
+                    return base + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the vector.
+     */
+    public int lastIndexOf(Object object) {
+        for (int base = tailOffset(size); base >= 0; base -= width) {
+            Object[] leaf = leafFor(base);
+            for (int i = Math.min(width, size - base) - 1; i >= 0; i--) {
+                if (object.equals(leaf[i])) {
+                    return base + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the vector.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Copies the vector to an array one leaf at a time.
+     * @return An array containing all elements.
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        for (int base = 0; base < size; base += width) {
+            System.arraycopy(leafFor(base), 0, array, base, Math.min(width, size - base));
+        }
+        return array;
+    }
+
+    /**
+     * @brief Returns an iterator that reads one leaf at a time.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+            private Object[] leaf = size > 0 ? leafFor(0) : null;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (index > 0 && (index & mask) == 0) {
+                    leaf = leafFor(index);
+                }
+                return (T) leaf[index++ & mask];
+            }
+        };
+    }
+
+    /**
+     * @brief Returns a spliterator that knows the size of the vector.
+     * @return An IMMUTABLE and SIZED spliterator.
+     */
+    public Spliterator<T> spliterator() {
+        return Spliterators.spliterator(iterator(), size, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    }
+
+    /**
+     * @brief Returns a sequential stream over the elements.
+     * @return A sequential stream.
+     */
+    public Stream<T> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * @brief A mutable builder that appends and sets in place and then produces a PersistentVector.
+     * Nodes it creates carry its token, so it changes them directly instead of
+     * copying the path. Nodes shared with the vector it started from are copied on
+     * first write, so that vector never changes. A builder is not thread-safe and
+     * cannot be used after build().
+     */
+    public static final class Builder<T> {
+        private Object owner = new Object(); // Token of the nodes this builder may edit, null after build()
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail; // Always width slots long while building
+
+        private Builder(PersistentVector<T> vector) {
+            size = vector.size;
+            shift = vector.shift;
+            root = vector.root;
+            tail = Arrays.copyOf(vector.tail, width);
+        }
+
+        /**
+         * @brief Throws if build() has been called.
+         * @throws IllegalStateException if the builder was already used.
+         */
+        private void checkActive() {
+            if (owner == null) {
+                throw new IllegalStateException("Builder already built");
+            }
+        }
+
+        /**
+         * @brief Returns the number of elements added so far.
+         * @return The size.
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @brief Appends an item in place.
+         * @param item The item to add.
+         * @return This builder.
+         */
+        public Builder<T> add(T item) {
+            checkActive();
+            int tailCount = size - tailOffset(size);
+            if (tailCount < width) {
+                tail[tailCount] = item;
+                size++;
+                return this;
+            }
+            Node leaf = new Node(owner, tail);
+            tail = new Object[width];
+            tail[0] = item;
+            if ((size >>> bits) > (1 << shift)) {
+                Node newRoot = new Node(owner, new Object[width]);
+                newRoot.array[0] = root;
+                newRoot.array[1] = newPath(owner, shift, leaf);
+                root = newRoot;
+                shift += bits;
+            } else {
+                root = pushTail(owner, size, shift, root, leaf);
+            }
+            size++;
+            return this;
+        }
+
+        /**
+         * @brief Replaces an item in place.
+         * @param index The index to set the item at.
+         * @param item The new item.
+         * @return This builder.
+         * @throws IndexOutOfBoundsException if the index is out of bounds.
+         */
+        public Builder<T> set(int index, T item) {
+            checkActive();
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index out of bounds");
+            }
+            if (index >= tailOffset(size)) {
+                tail[index & mask] = item;
+            } else {
+                root = setInTrie(owner, shift, root, index, item);
+            }
+            return this;
+        }
+
+        /**
+         * @brief Produces the vector. Only the tail is copied; the trie is handed over as it is.
+         * @return A vector holding the added elements.
+         */
+        public PersistentVector<T> build() {
+            checkActive();
+            owner = null; // No one may edit the nodes from now on
+            if (size == 0) {
+                return empty();
+            }
+            int tailCount = size - tailOffset(size);
+            return new PersistentVector<>(size, shift, root, Arrays.copyOf(tail, tailCount));
+        }
+    }
+}
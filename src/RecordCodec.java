@@ -0,0 +1,82 @@
+import java.nio.ByteBuffer;
+
+
+/**
+ * @brief Converts elements to and from fixed-width binary records.
+ * Used by the lists that store their elements outside the Java heap.
+ * Every record written by a codec takes exactly recordSize() bytes.
+ */
+public interface RecordCodec<T> {
+    /**
+     * @brief Returns the number of bytes in one record.
+     * @return The record width in bytes.
+     */
+    int recordSize();
+
+    /**
+     * @brief Writes an element as a record at the given byte offset.
+     * @param buffer The buffer to write to.
+     * @param offset The byte offset of the record.
+     * @param value The element to write.
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * @brief Reads the record at the given byte offset.
+     * @param buffer The buffer to read from.
+     * @param offset The byte offset of the record.
+     * @return The element stored in the record.
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * @brief A codec for Integer elements stored as 4-byte ints.
+     */
+    RecordCodec<Integer> INT = new RecordCodec<>() {
+        public int recordSize() {
+            return Integer.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Integer value) {
+            buffer.putInt(offset, value);
+        }
+
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * @brief A codec for Long elements stored as 8-byte longs.
+     */
+    RecordCodec<Long> LONG = new RecordCodec<>() {
+        public int recordSize() {
+            return Long.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Long value) {
+            buffer.putLong(offset, value);
+        }
+
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * @brief A codec for Double elements stored as 8-byte doubles.
+     */
+    RecordCodec<Double> DOUBLE = new RecordCodec<>() {
+        public int recordSize() {
+            return Double.BYTES;
+        }
+
+        public void write(ByteBuffer buffer, int offset, Double value) {
+            buffer.putDouble(offset, value);
+        }
+
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+}
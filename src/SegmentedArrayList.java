@@ -0,0 +1,329 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * @brief An array list stored in fixed-size segments instead of one contiguous array.
+ * A small directory holds segments of 2^segment_bits elements, so an index is
+ * found with a shift and a mask. Growing the list allocates one more segment and
+ * never copies the elements already stored; only the directory, one reference
+ * per segment, is copied when it fills up. No single allocation is larger than
+ * a segment, so very large lists avoid the huge arrays that G1 has to place in
+ * contiguous humongous regions.
+ *
+ * Removing from the end releases segments that are no longer needed, keeping
+ * one spare so that a list going back and forth over a segment boundary does
+ * not allocate on every crossing. Inserting or removing in the middle shifts
+ * the later elements segment by segment, like MyArrayList does in one array.
+ */
+public class SegmentedArrayList<T> implements MyList<T> {
+    private static final int segment_bits = 12; // 4096 elements, 16 KB with compressed references
+    private static final int segment_size = 1 << segment_bits;
+    private static final int segment_mask = segment_size - 1;
+    private static final int default_directory = 8;
+
+    private Object[][] segments = new Object[default_directory][];
+    private int segmentCount; // Number of allocated segments, always a prefix of the directory
+    private int size;
+
+    /**
+     * @brief Constructs an empty list.
+     */
+    public SegmentedArrayList() {
+        segmentCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @brief Makes sure the segments can hold at least minCapacity elements, allocating new segments only.
+     * @param minCapacity The minimum required capacity.
+     */
+    private void increaseCapacity(int minCapacity) {
+        while ((long) segmentCount << segment_bits < minCapacity) {
+            if (segmentCount == segments.length) {
+                segments = Arrays.copyOf(segments, segmentCount * 2); // Copies references to segments, not elements
+            }
+            segments[segmentCount++] = new Object[segment_size];
+        }
+    }
+
+    /**
+     * @brief Releases the segments past the one holding the last element, except for one spare.
+     */
+    private void releaseSegments() {
+        int needed = (size + segment_mask) >>> segment_bits;
+        while (segmentCount > needed + 1) {
+            segments[--segmentCount] = null;
+        }
+    }
+
+    /**
+     * @brief Moves count elements from one position to another, one segment-sized chunk at a time.
+     * The ranges may overlap; the chunks are copied in the order that keeps the source intact.
+     * @param from The first source position.
+     * @param to The first destination position.
+     * @param count The number of elements to move.
+     */
+    private void move(int from, int to, int count) {
+        if (to < from) {
+            while (count > 0) {
+                int n = Math.min(count, Math.min(segment_size - (from & segment_mask), segment_size - (to & segment_mask)));
+                System.arraycopy(segments[from >>> segment_bits], from & segment_mask,
+                        segments[to >>> segment_bits], to & segment_mask, n);
+                from += n;
+                to += n;
+                count -= n;
+            }
+        } else {
+            int fromEnd = from + count;
+            int toEnd = to + count;
+            while (count > 0) {
+                int n = Math.min(count, Math.min(((fromEnd - 1) & segment_mask) + 1, ((toEnd - 1) & segment_mask) + 1));
+                fromEnd -= n;
+                toEnd -= n;
+                System.arraycopy(segments[fromEnd >>> segment_bits], fromEnd & segment_mask,
+                        segments[toEnd >>> segment_bits], toEnd & segment_mask, n);
+                count -= n;
+            }
+        }
+    }
+
+    /**
+     * @brief Throws if the index is not in the list.
+     * @param index The index to check.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list without copying any stored element.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        if ((size >>> segment_bits) == segmentCount) {
+            increaseCapacity(size + 1);
+        }
+        segments[size >>> segment_bits][size & segment_mask] = item;
+        size++;
+    }
+
+    /**
+     * @brief Sets the value at a specific index.
+     * @param index The index to set the item at.
+     * @param item The item to set.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void set(int index, T item) {
+        checkIndex(index);
+        segments[index >>> segment_bits][index & segment_mask] = item;
+    }
+
+    /**
+     * @brief Inserts an item at a specific index, shifting the later elements right.
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void add(int index, T item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        increaseCapacity(size + 1);
+        move(index, index + 1, size - index);
+        segments[index >>> segment_bits][index & segment_mask] = item;
+        size++;
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to retrieve the item from.
+     * @return The item at the specified index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public T get(int index) {
+        checkIndex(index);
+        return (T) segments[index >>> segment_bits][index & segment_mask];
+    }
+
+    /**
+     * @brief Retrieves the first item in the list.
+     * @return The first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) segments[0][0];
+    }
+
+    /**
+     * @brief Retrieves the last item in the list.
+     * @return The last item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return get(size - 1);
+    }
+
+    /**
+     * @brief Removes the item at a specific index, shifting the later elements left.
+     * @param index The index to remove the item from.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        move(index + 1, index, size - index - 1);
+        size--;
+        segments[size >>> segment_bits][size & segment_mask] = null;
+        releaseSegments();
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        remove(0);
+    }
+
+    /**
+     * @brief Removes the last item in the list, releasing the last segment once it is no longer needed.
+     * @throws IllegalStateException if the list is empty.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        size--;
+        segments[size >>> segment_bits][size & segment_mask] = null;
+        if ((size & segment_mask) == 0) {
+            releaseSegments();
+        }
+    }
+
+    /**
+     * @brief Sorts the list in natural order.
+     * The elements are sorted in a temporary array and copied back segment by segment.
+     * @throws ClassCastException if the elements are not mutually comparable.
+     */
+    public void sort() {
+        Object[] array = toArray();
+        Arrays.sort(array);
+        for (int base = 0; base < size; base += segment_size) {
+            System.arraycopy(array, base, segments[base >>> segment_bits], 0, Math.min(segment_size, size - base));
+        }
+    }
+
+    /**
+     * @brief Finds the first position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        for (int base = 0; base < size; base += segment_size) {
+            Object[] segment = segments[base >>> segment_bits];
+            int count = Math.min(segment_size, size - base);
+            for (int i = 0; i < count; i++) {
+                if (object.equals(segment[i])) {
+                    return base + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (object.equals(segments[i >>> segment_bits][i & segment_mask])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the list.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Converts the list to an array, copying one segment at a time.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        for (int base = 0; base < size; base += segment_size) {
+            System.arraycopy(segments[base >>> segment_bits], 0, array, base, Math.min(segment_size, size - base));
+        }
+        return array;
+    }
+
+    /**
+     * @brief Clears all elements and releases every segment.
+     */
+    public void clear() {
+        segments = new Object[default_directory][];
+        segmentCount = 0;
+        size = 0;
+    }
+
+    /**
+     * @brief Returns an iterator that reads one segment at a time.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int index = 0;
+
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            public T next() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                T item = (T) segments[index >>> segment_bits][index & segment_mask];
+                index++;
+                return item;
+            }
+        };
+    }
+}
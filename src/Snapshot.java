@@ -0,0 +1,254 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * @brief Reads and writes binary snapshots of array-backed collections.
+ * A snapshot is a small header followed by length-prefixed chunks of fixed-width
+ * records produced by a RecordCodec. Each chunk starts with its record count, and
+ * a chunk with a count of 0 ends the stream, so a reader can check every chunk
+ * against the header before trusting it.
+ *
+ * Chunks are encoded into reused direct buffers and several of them go to the
+ * file in one gathering write, so writing never builds the whole snapshot in
+ * memory. A snapshot is written beside its target and moved into place only once
+ * it is complete and durable. Reading maps the file in large windows and decodes the records straight
+ * into an exact-size array, in the order they were written. The array is handed
+ * to the collection as its backing array, so a heap comes back in heap order
+ * without being rebuilt.
+ */
+final class Snapshot {
+    static final int list_kind = 1;
+    static final int heap_kind = 2;
+
+    private static final long magic = 0x4D59534E41503031L; // "MYSNAP01"
+    private static final int header_bytes = 32;
+    private static final int magic_offset = 0;
+    private static final int kind_offset = 8;
+    private static final int record_size_offset = 12;
+    private static final int arity_offset = 16;
+    private static final int chunk_records_offset = 20;
+    private static final int count_offset = 24;
+    private static final int prefix_bytes = Integer.BYTES;
+    private static final int chunk_bytes = 1 << 20; // Target size of one chunk body
+    private static final int batch_chunks = 8; // Chunks passed to one gathering write
+    private static final int window_bytes = 256 << 20; // Target size of one mapped read window
+
+    final int arity;
+    final Object[] elements;
+
+    /**
+     * @brief Holds the result of reading a snapshot.
+     * @param arity The arity stored in the header, 0 for lists.
+     * @param elements The decoded elements, exactly as many as the snapshot holds.
+     */
+    private Snapshot(int arity, Object[] elements) {
+        this.arity = arity;
+        this.elements = elements;
+    }
+
+    /**
+     * @brief Writes the first size elements of an array to a file, replacing its contents.
+     * The snapshot is written to a temporary file in the same directory, forced to the storage
+     * device and then moved over the target atomically, so a crash or an encoding error partway
+     * through leaves the previous snapshot intact.
+     * @param path The file to write.
+     * @param kind The collection type, list_kind or heap_kind.
+     * @param arity The heap arity, or 0 for lists.
+     * @param elements The backing array of the collection.
+     * @param size The number of elements to write.
+     * @param codec The codec that converts elements to records.
+     * @throws IOException if the file cannot be written, or the file system cannot replace it atomically.
+     */
+    static <T> void write(Path path, int kind, int arity, Object[] elements, int size, RecordCodec<T> codec) throws IOException {
+        int recordSize = codec.recordSize();
+        int chunkRecords = Math.max(1, chunk_bytes / recordSize);
+
+        ByteBuffer header = ByteBuffer.allocate(header_bytes).order(ByteOrder.LITTLE_ENDIAN);
+        header.putLong(magic_offset, magic);
+        header.putInt(kind_offset, kind);
+        header.putInt(record_size_offset, recordSize);
+        header.putInt(arity_offset, arity);
+        header.putInt(chunk_records_offset, chunkRecords);
+        header.putLong(count_offset, size);
+
+        int chunks = Math.max(1, Math.min(batch_chunks, (size + chunkRecords - 1) / chunkRecords));
+        ByteBuffer[] prefixes = new ByteBuffer[chunks];
+        ByteBuffer[] bodies = new ByteBuffer[chunks];
+        ByteBuffer[] gather = new ByteBuffer[2 * chunks + 1];
+        Path directory = path.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, path.getFileName() + ".", ".tmp");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                for (int c = 0; c < chunks; c++) {
+                    prefixes[c] = ByteBuffer.allocate(prefix_bytes).order(ByteOrder.LITTLE_ENDIAN);
+                    bodies[c] = ByteBuffer.allocateDirect(chunkRecords * recordSize).order(ByteOrder.LITTLE_ENDIAN);
+                }
+                int count = 0;
+                gather[count++] = header; // Goes out with the first batch
+                int index = 0;
+                while (index < size) {
+                    for (int c = 0; c < chunks && index < size; c++) {
+                        int records = Math.min(chunkRecords, size - index);
+                        ByteBuffer prefix = prefixes[c].clear();
+                        prefix.putInt(0, records);
+                        ByteBuffer body = bodies[c].clear();
+                        int offset = 0;
+                        for (int i = 0; i < records; i++) {
+                            codec.write(body, offset, (T) elements[index++]);
+                            offset += recordSize;
+                        }
+                        body.limit(offset);
+                        gather[count++] = prefix;
+                        gather[count++] = body;
+                    }
+                    writeFully(channel, gather, count);
+                    count = 0;
+                }
+                gather[count++] = prefixes[0].clear().putInt(0, 0); // End of stream
+                writeFully(channel, gather, count);
+                channel.force(true);
+            } // Closed before the move, so the renamed file is complete
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE); // Replaces the old snapshot in one step
+            moved = true;
+        } finally {
+            for (ByteBuffer body : bodies) {
+                if (body != null) {
+                    OffHeapList.free(body);
+                }
+            }
+            if (!moved) {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+
+    /**
+     * @brief Writes every remaining byte of the given buffers, one gathering write at a time.
+     * @param channel The channel to write to.
+     * @param buffers The buffers to write, in order.
+     * @param count The number of buffers to use.
+     * @throws IOException if the write fails.
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer[] buffers, int count) throws IOException {
+        long remaining = 0;
+        for (int i = 0; i < count; i++) {
+            remaining += buffers[i].remaining();
+        }
+        while (remaining > 0) {
+            remaining -= channel.write(buffers, 0, count);
+        }
+    }
+
+    /**
+     * @brief Reads a snapshot into an exact-size array.
+     * @param path The file to read.
+     * @param kind The expected collection type, list_kind or heap_kind.
+     * @param codec The codec that converts records to elements.
+     * @return The arity and the decoded elements.
+     * @throws IOException if the file cannot be read.
+     * @throws IllegalArgumentException if the file is not a snapshot of the expected type, uses a different
+     *         record width, or is truncated or corrupt.
+     */
+    static Snapshot read(Path path, int kind, RecordCodec<?> codec) throws IOException {
+        int recordSize = codec.recordSize();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < header_bytes + prefix_bytes) {
+                throw new IllegalArgumentException("Not a snapshot file");
+            }
+            MappedByteBuffer window = map(channel, 0, Math.min(fileSize, window_bytes));
+            long windowStart = 0;
+            long windowEnd = window.capacity();
+            try {
+                if (window.getLong(magic_offset) != magic) {
+                    throw new IllegalArgumentException("Not a snapshot file");
+                }
+                if (window.getInt(kind_offset) != kind) {
+                    throw new IllegalArgumentException("Snapshot holds a different collection type");
+                }
+                if (window.getInt(record_size_offset) != recordSize) {
+                    throw new IllegalArgumentException("File uses " + window.getInt(record_size_offset)
+                            + "-byte records, codec uses " + recordSize);
+                }
+                int arity = window.getInt(arity_offset);
+                int chunkRecords = window.getInt(chunk_records_offset);
+                long total = window.getLong(count_offset);
+                if (total < 0 || total > Integer.MAX_VALUE - 8 || chunkRecords <= 0) {
+                    throw new IllegalArgumentException("Corrupt snapshot header");
+                }
+                if (header_bytes + total * recordSize > fileSize) {
+                    throw new IllegalArgumentException("Snapshot is truncated"); // Checked before the array is allocated
+                }
+
+                Object[] elements = new Object[(int) total];
+                int loaded = 0;
+                long position = header_bytes;
+                while (true) {
+                    if (position + prefix_bytes > fileSize) {
+                        throw new IllegalArgumentException("Snapshot is truncated");
+                    }
+                    if (position + prefix_bytes > windowEnd) {
+                        OffHeapList.free(window);
+                        window = null;
+                        windowStart = position;
+                        windowEnd = Math.min(fileSize, position + window_bytes);
+                        window = map(channel, windowStart, windowEnd - windowStart);
+                    }
+                    int records = window.getInt((int) (position - windowStart));
+                    if (records == 0) {
+                        break;
+                    }
+                    long bytes = prefix_bytes + (long) records * recordSize;
+                    if (records < 0 || records > chunkRecords || records > elements.length - loaded
+                            || position + bytes > fileSize) {
+                        throw new IllegalArgumentException("Corrupt snapshot chunk");
+                    }
+                    if (position + bytes > windowEnd) {
+                        OffHeapList.free(window);
+                        window = null;
+                        windowStart = position;
+                        windowEnd = Math.min(fileSize, position + Math.max(window_bytes, bytes));
+                        window = map(channel, windowStart, windowEnd - windowStart);
+                    }
+                    int offset = (int) (position - windowStart) + prefix_bytes;
+                    for (int i = 0; i < records; i++) {
+                        elements[loaded++] = codec.read(window, offset);
+                        offset += recordSize;
+                    }
+                    position += bytes;
+                }
+                if (loaded != elements.length) {
+                    throw new IllegalArgumentException("Snapshot is truncated");
+                }
+                return new Snapshot(arity, elements);
+            } finally {
+                if (window != null) {
+                    OffHeapList.free(window);
+                }
+            }
+        }
+    }
+
+    /**
+     * @brief Maps a read-only little-endian window of a file.
+     * @param channel The open file.
+     * @param position The byte offset of the window.
+     * @param length The length of the window in bytes.
+     * @return The mapped window.
+     * @throws IOException if the window cannot be mapped.
+     */
+    private static MappedByteBuffer map(FileChannel channel, long position, long length) throws IOException {
+        MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        return window;
+    }
+}
@@ -0,0 +1,332 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * @brief A sorted run of fixed-width records in a temporary file.
+ * Runs are the unit of work of the external sorter and of the spilling
+ * priority queue. A Writer appends records in ascending order through a direct
+ * buffer, and a Cursor reads them back sequentially through its own buffer, so
+ * both sides only do large sequential transfers. The file has no header; the
+ * record count is kept in memory.
+ */
+final class SortedRun<T extends Comparable<T>> {
+    private final Path path;
+    private final RecordCodec<T> codec;
+    private final long count;
+
+    /**
+     * @brief Describes a finished run file.
+     * @param path The run file.
+     * @param codec The codec the records were written with.
+     * @param count The number of records in the file.
+     */
+    private SortedRun(Path path, RecordCodec<T> codec, long count) {
+        this.path = path;
+        this.codec = codec;
+        this.count = count;
+    }
+
+    /**
+     * @brief Returns the number of records in the run.
+     * @return The record count.
+     */
+    long count() {
+        return count;
+    }
+
+    /**
+     * @brief Opens a cursor positioned on the first record.
+     * @param bufferBytes The largest size of the read buffer.
+     * @param order A tie-breaker between cursors whose current records are equal.
+     * @return The cursor, or null if the run is empty.
+     * @throws IOException if the file cannot be read.
+     */
+    Cursor<T> open(int bufferBytes, int order) throws IOException {
+        if (count == 0) {
+            return null;
+        }
+        long runBytes = count * codec.recordSize();
+        Cursor<T> cursor = new Cursor<>(this, (int) Math.min(bufferBytes, runBytes), order); // Short runs get short buffers
+        cursor.advance();
+        return cursor;
+    }
+
+    /**
+     * @brief Deletes the run file.
+     * @throws IOException if the file exists but cannot be deleted.
+     */
+    void delete() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * @brief Writes a sorted range of an array as a new run.
+     * @param directory The directory for the run file.
+     * @param elements The array holding the sorted elements.
+     * @param from The first index to write.
+     * @param to One past the last index to write.
+     * @param codec The codec that converts elements to records.
+     * @param bufferBytes The size of the write buffer.
+     * @return The finished run.
+     * @throws IOException if the file cannot be written.
+     */
+    static <T extends Comparable<T>> SortedRun<T> write(Path directory, Object[] elements, int from, int to,
+            RecordCodec<T> codec, int bufferBytes) throws IOException {
+        try (Writer<T> writer = new Writer<>(directory, codec, bufferBytes)) {
+            for (int i = from; i < to; i++) {
+                writer.add((T) elements[i]);
+            }
+            return writer.finish();
+        }
+    }
+
+    /**
+     * @brief Appends records to a new run file through a direct buffer.
+     */
+    static final class Writer<T extends Comparable<T>> implements AutoCloseable {
+        private final Path path;
+        private final RecordCodec<T> codec;
+        private final int recordSize;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int offset; // Bytes filled in the buffer
+        private long count;
+        private boolean finished;
+
+        /**
+         * @brief Creates an empty run file in a directory.
+         * @param directory The directory for the run file.
+         * @param codec The codec that converts elements to records.
+         * @param bufferBytes The size of the write buffer, rounded up to at least one record.
+         * @throws IOException if the file cannot be created.
+         */
+        Writer(Path directory, RecordCodec<T> codec, int bufferBytes) throws IOException {
+            this.path = Files.createTempFile(directory, "run", ".bin");
+            this.codec = codec;
+            this.recordSize = codec.recordSize();
+            try {
+                this.channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException | RuntimeException e) {
+                Files.deleteIfExists(path);
+                throw e;
+            }
+            int records = Math.max(1, bufferBytes / recordSize);
+            this.buffer = ByteBuffer.allocateDirect(records * recordSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * @brief Appends one record, writing the buffer out when it is full.
+         * @param element The element to append. Must not be smaller than the previous one.
+         * @throws IOException if the buffer cannot be written.
+         */
+        void add(T element) throws IOException {
+            if (offset == buffer.capacity()) {
+                flush();
+            }
+            codec.write(buffer, offset, element);
+            offset += recordSize;
+            count++;
+        }
+
+        /**
+         * @brief Writes the filled part of the buffer to the file.
+         * @throws IOException if the write fails.
+         */
+        private void flush() throws IOException {
+            buffer.clear().limit(offset);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            offset = 0;
+        }
+
+        /**
+         * @brief Writes the remaining records and closes the file.
+         * @return The finished run.
+         * @throws IOException if the write fails.
+         */
+        SortedRun<T> finish() throws IOException {
+            flush();
+            finished = true;
+            close();
+            return new SortedRun<>(path, codec, count);
+        }
+
+        /**
+         * @brief Closes the file and frees the buffer, deleting the file unless finish() was called.
+         * @throws IOException if the file cannot be closed or deleted.
+         */
+        public void close() throws IOException {
+            if (!channel.isOpen()) {
+                return;
+            }
+            OffHeapList.free(buffer);
+            channel.close();
+            if (!finished) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * @brief Reads a run sequentially, exposing the current record as head.
+     * Cursors order by their current record so that a MinHeap of cursors always
+     * has the cursor with the smallest pending record on top.
+     */
+    static final class Cursor<T extends Comparable<T>> implements Comparable<Cursor<T>>, AutoCloseable {
+        private final SortedRun<T> run;
+        private final int recordSize;
+        private final int order;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int offset; // Byte offset of the next record in the buffer
+        private long remaining; // Records not yet moved to head
+        private T head;
+        private boolean closed; // Set by close(); the buffer has been freed
+
+        /**
+         * @brief Opens a run file for reading. The cursor has no head until advance() is called.
+         * @param run The run to read.
+         * @param bufferBytes The size of the read buffer, rounded up to at least one record.
+         * @param order A tie-breaker between cursors whose current records are equal.
+         * @throws IOException if the file cannot be opened.
+         */
+        private Cursor(SortedRun<T> run, int bufferBytes, int order) throws IOException {
+            this.run = run;
+            this.recordSize = run.codec.recordSize();
+            this.order = order;
+            this.channel = FileChannel.open(run.path, StandardOpenOption.READ);
+            int records = Math.max(1, bufferBytes / recordSize);
+            this.buffer = ByteBuffer.allocateDirect(records * recordSize).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.limit(0);
+            this.remaining = run.count;
+        }
+
+        /**
+         * @brief Returns the run this cursor reads.
+         * @return The run.
+         */
+        SortedRun<T> run() {
+            return run;
+        }
+
+        /**
+         * @brief Opens a second, independent cursor positioned on this cursor's current record.
+         * Reading from the new cursor does not move this one, so a merge can fail without losing records.
+         * @param bufferBytes The largest size of the new cursor's read buffer.
+         * @param order The tie-breaker of the new cursor.
+         * @return The new cursor.
+         * @throws IOException if the file cannot be read.
+         * @throws IllegalStateException if this cursor has been closed.
+         */
+        Cursor<T> reopen(int bufferBytes, int order) throws IOException {
+            checkOpen();
+            long pending = remaining + 1; // The head and everything after it
+            Cursor<T> copy = new Cursor<>(run, (int) Math.min(bufferBytes, pending * recordSize), order);
+            try {
+                copy.channel.position((run.count - pending) * recordSize);
+                copy.remaining = pending;
+                copy.advance();
+            } catch (IOException | RuntimeException e) {
+                copy.close();
+                throw e;
+            }
+            return copy;
+        }
+
+        /**
+         * @brief Returns the current record.
+         * @return The smallest record of the run not yet consumed.
+         * @throws IllegalStateException if the cursor has been closed.
+         */
+        T head() {
+            checkOpen();
+            return head;
+        }
+
+        /**
+         * @brief Throws if the cursor has been closed.
+         * @throws IllegalStateException if close() has been called.
+         */
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("Cursor is closed");
+            }
+        }
+
+        /**
+         * @brief Moves to the next record, refilling the buffer from the file when it runs out.
+         * The file is closed once the last record has been read. If the read fails, the head does not change.
+         * @return true if there is a new head, false if the run is exhausted.
+         * @throws IOException if the file cannot be read.
+         * @throws IllegalStateException if the cursor has been closed.
+         */
+        boolean advance() throws IOException {
+            checkOpen();
+            if (remaining == 0) {
+                head = null;
+                release(); // Exhausted, but not closed: advance keeps returning false
+                return false;
+            }
+            if (offset == buffer.limit()) {
+                long start = channel.position();
+                try {
+                    buffer.clear();
+                    while (buffer.position() < buffer.capacity() && channel.read(buffer) >= 0) {
+                        // Fill the whole buffer so the next refill is a full sequential read
+                    }
+                    buffer.flip();
+                    if (buffer.limit() < recordSize) {
+                        throw new IOException("Run file is truncated");
+                    }
+                } catch (IOException e) {
+                    buffer.limit(0); // Leave head in place so a later call retries the same read
+                    offset = 0;
+                    channel.position(start);
+                    throw e;
+                }
+                offset = 0;
+            }
+            head = run.codec.read(buffer, offset);
+            offset += recordSize;
+            remaining--;
+            return true;
+        }
+
+        /**
+         * @brief Compares two cursors by their current records, then by their order.
+         * @param other The cursor to compare with.
+         * @return A negative number, zero or a positive number.
+         */
+        public int compareTo(Cursor<T> other) {
+            int result = head.compareTo(other.head);
+            return result != 0 ? result : Integer.compare(order, other.order);
+        }
+
+        /**
+         * @brief Closes the file and frees the buffer. Afterwards head() and advance() throw.
+         * @throws IOException if the file cannot be closed.
+         */
+        public void close() throws IOException {
+            closed = true;
+            release();
+        }
+
+        /**
+         * @brief Closes the file and frees the buffer if that has not been done yet.
+         * @throws IOException if the file cannot be closed.
+         */
+        private void release() throws IOException {
+            if (channel.isOpen()) {
+                OffHeapList.free(buffer);
+                channel.close();
+            }
+        }
+    }
+}
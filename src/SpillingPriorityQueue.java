@@ -0,0 +1,285 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+
+/**
+ * @brief A min-priority queue that holds at most a fixed number of elements in memory and spills the rest to disk.
+ * The smallest elements live in a MinHeap. When the heap grows past its limit,
+ * it is drained in order, the larger half is written to a sorted run file on
+ * local disk and the smaller half goes back into the heap. Inserting in
+ * ascending order costs O(1) per element, so putting the small half back is
+ * cheap. If the run cannot be written, every drained element goes back instead.
+ *
+ * Every run is read through a cursor with its own buffer, and a second MinHeap
+ * orders the cursors by their current elements. extractMin takes whichever is
+ * smaller, the top of the memory heap or the head of the best run, so elements
+ * come out in priority order no matter where they are.
+ *
+ * Runs are kept in size tiers: a spilled run starts in tier 0, and when a tier
+ * holds merge_fan_in runs, their remaining elements are merged into one run of
+ * the next tier. Each element is rewritten once per tier, so disk traffic grows
+ * as n log n rather than quadratically, and the number of open runs stays small.
+ * Merges read through fresh cursors, so a failed merge leaves the queue as it
+ * was. Run files are deleted once they are drained, and by close().
+ */
+public class SpillingPriorityQueue<T extends Comparable<T>> implements AutoCloseable {
+    private static final int merge_fan_in = 16; // Runs in one tier before they are merged into the next
+    private static final int run_buffer_bytes = 256 << 10; // Read buffer of one run
+    private static final int merge_buffer_bytes = 16 << 20; // Read buffers of one merge, split between its runs
+    private static final int write_buffer_bytes = 1 << 20;
+
+    private final Path directory;
+    private final RecordCodec<T> codec;
+    private final int memoryLimit;
+    private MinHeap<T> heap = new MinHeap<>();
+    private MinHeap<SortedRun.Cursor<T>> runHeads = new MinHeap<>(); // One cursor per non-empty run
+    private final MyArrayList<MyArrayList<SortedRun.Cursor<T>>> tiers = new MyArrayList<>(); // Live cursors by tier
+    private int nextOrder; // Tie-breaker handed to new cursors, so older runs win ties
+    private long size;
+
+    /**
+     * @brief Constructs an empty queue.
+     * @param directory The local directory for the run files.
+     * @param codec The codec that converts elements to fixed-width records.
+     * @param memoryLimit The largest number of elements kept in the memory heap.
+     * @throws IllegalArgumentException if memoryLimit is smaller than 2.
+     */
+    public SpillingPriorityQueue(Path directory, RecordCodec<T> codec, int memoryLimit) {
+        if (memoryLimit < 2) {
+            throw new IllegalArgumentException("Memory limit must be at least 2");
+        }
+        this.directory = directory;
+        this.codec = codec;
+        this.memoryLimit = memoryLimit;
+    }
+
+    /**
+     * @brief Checks if the queue is empty.
+     * @return true if the queue has no elements, in memory or on disk.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Returns the number of elements, in memory and on disk.
+     * @return The size of the queue.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns the number of runs currently on disk.
+     * @return The number of run files.
+     */
+    public int runCount() {
+        return runHeads.size();
+    }
+
+    /**
+     * @brief Inserts an element, spilling the larger half of the memory heap when it is over its limit.
+     * If spilling fails, the element stays inserted, nothing is lost and the exception is rethrown.
+     * @param element The element to insert.
+     * @throws NullPointerException if the element is null.
+     * @throws UncheckedIOException if a run cannot be written.
+     */
+    public void insert(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        heap.insert(element);
+        size++;
+        if (heap.size() > memoryLimit) {
+            try {
+                spill();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * @brief Drains the memory heap in order, writes the larger half as a run and keeps the smaller half.
+     * If the run cannot be written, all drained elements go back into the heap.
+     * @throws IOException if the run cannot be written or read.
+     */
+    private void spill() throws IOException {
+        int count = heap.size();
+        Object[] sorted = new Object[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = heap.extractMin();
+        }
+        int keep = count / 2;
+        SortedRun<T> run = null;
+        try {
+            run = SortedRun.write(directory, sorted, keep, count, codec, write_buffer_bytes);
+            addRun(run, 0);
+        } catch (IOException | RuntimeException e) {
+            if (run != null) {
+                run.delete();
+            }
+            keep = count; // Put everything back
+            throw e;
+        } finally {
+            for (int i = 0; i < keep; i++) {
+                heap.insert((T) sorted[i]); // Ascending, so nothing moves up
+            }
+        }
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            if (tiers.get(tier).size() >= merge_fan_in) {
+                mergeTier(tier);
+            }
+        }
+    }
+
+    /**
+     * @brief Opens a cursor on a run and adds it to the run heap and to its tier.
+     * Nothing is added if the cursor cannot be opened.
+     * @param run The run to add.
+     * @param tier The tier of the run.
+     * @throws IOException if the run cannot be read.
+     */
+    private void addRun(SortedRun<T> run, int tier) throws IOException {
+        SortedRun.Cursor<T> cursor = run.open(run_buffer_bytes, nextOrder++);
+        while (tiers.size() <= tier) {
+            tiers.add(new MyArrayList<>());
+        }
+        tiers.get(tier).add(cursor);
+        runHeads.insert(cursor);
+    }
+
+    /**
+     * @brief Merges the remaining elements of every run in a tier into one run of the next tier.
+     * The merge reads through reopened cursors and the old runs are only dropped once the new run is
+     * readable, so a failure leaves every run as it was.
+     * @param tier The tier to merge.
+     * @throws IOException if a run cannot be read or written.
+     */
+    private void mergeTier(int tier) throws IOException {
+        MyArrayList<SortedRun.Cursor<T>> group = tiers.get(tier);
+        int bufferBytes = merge_buffer_bytes / group.size();
+        MyArrayList<SortedRun.Cursor<T>> copies = new MyArrayList<>();
+        SortedRun<T> merged;
+        try {
+            MinHeap<SortedRun.Cursor<T>> merging = new MinHeap<>();
+            for (SortedRun.Cursor<T> cursor : group) {
+                SortedRun.Cursor<T> copy = cursor.reopen(bufferBytes, copies.size());
+                copies.add(copy);
+                merging.insert(copy);
+            }
+            try (SortedRun.Writer<T> writer = new SortedRun.Writer<>(directory, codec, write_buffer_bytes)) {
+                while (!merging.isEmpty()) {
+                    SortedRun.Cursor<T> cursor = merging.peek();
+                    writer.add(cursor.head());
+                    if (cursor.advance()) {
+                        merging.replaceTop(cursor); // The new head sinks in one pass
+                    } else {
+                        merging.extractMin();
+                    }
+                }
+                merged = writer.finish();
+            }
+        } finally {
+            for (SortedRun.Cursor<T> copy : copies) {
+                copy.close();
+            }
+        }
+        try {
+            addRun(merged, tier + 1);
+        } catch (IOException | RuntimeException e) {
+            merged.delete();
+            throw e;
+        }
+
+        MinHeap<SortedRun.Cursor<T>> rest = new MinHeap<>();
+        for (Object cursor : runHeads.toArray()) {
+            if (group.indexOf(cursor) == -1) {
+                rest.insert((SortedRun.Cursor<T>) cursor);
+            }
+        }
+        runHeads = rest;
+        for (SortedRun.Cursor<T> cursor : group) {
+            cursor.close();
+            cursor.run().delete();
+        }
+        group.clear();
+    }
+
+    /**
+     * @brief Returns the minimum element without removing it.
+     * @return The minimum element.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public T peek() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        if (runHeads.isEmpty() || (!heap.isEmpty() && heap.peek().compareTo(runHeads.peek().head()) <= 0)) {
+            return heap.peek();
+        }
+        return runHeads.peek().head();
+    }
+
+    /**
+     * @brief Removes and returns the minimum element, reading the next element of its run if it came from disk.
+     * If the run cannot be read, the element stays in the queue and the exception is thrown.
+     * @return The minimum element.
+     * @throws IllegalStateException if the queue is empty.
+     * @throws UncheckedIOException if a run cannot be read.
+     */
+    public T extractMin() {
+        if (isEmpty()) {
+            throw new IllegalStateException("Queue is empty");
+        }
+        if (runHeads.isEmpty() || (!heap.isEmpty() && heap.peek().compareTo(runHeads.peek().head()) <= 0)) {
+            size--;
+            return heap.extractMin();
+        }
+        SortedRun.Cursor<T> cursor = runHeads.peek();
+        T element = cursor.head();
+        boolean more;
+        try {
+            more = cursor.advance();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // The element is still the head of its run
+        }
+        size--;
+        if (more) {
+            runHeads.replaceTop(cursor); // The new head sinks in one pass
+            return element;
+        }
+        runHeads.extractMin();
+        for (MyArrayList<SortedRun.Cursor<T>> tier : tiers) {
+            int position = tier.indexOf(cursor);
+            if (position != -1) {
+                tier.remove(position);
+                break;
+            }
+        }
+        try {
+            cursor.run().delete();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return element;
+    }
+
+    /**
+     * @brief Removes every element, closing and deleting all run files.
+     * @throws IOException if a file cannot be closed or deleted.
+     */
+    public void close() throws IOException {
+        for (MyArrayList<SortedRun.Cursor<T>> tier : tiers) {
+            for (SortedRun.Cursor<T> cursor : tier) {
+                cursor.close();
+                cursor.run().delete();
+            }
+        }
+        tiers.clear();
+        runHeads = new MinHeap<>();
+        heap = new MinHeap<>();
+        size = 0;
+    }
+}
@@ -0,0 +1,126 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collector;
+
+
+/**
+ * @brief Keeps the k largest elements seen in a stream, in O(k) memory.
+ * The kept elements live in a MinHeap, so the smallest of them, the threshold
+ * an element has to beat, is always on top. Once k elements are kept, the
+ * threshold is cached in a field: an element that is not larger is rejected
+ * with one comparison and never touches the heap. A larger element takes the
+ * threshold's place with replaceTop, which is a single sift-down.
+ *
+ * Partial results from different threads combine with merge, and collector()
+ * wraps this for parallel streams. On ties at the threshold, the element seen
+ * first is kept.
+ */
+public class TopK<T extends Comparable<T>> {
+    private final int k;
+    private final MinHeap<T> heap = new MinHeap<>();
+    private T threshold; // Smallest kept element once k are kept, null before
+
+    /**
+     * @brief Constructs an empty collector.
+     * @param k The number of elements to keep.
+     * @throws IllegalArgumentException if k is not positive.
+     */
+    public TopK(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        this.k = k;
+    }
+
+    /**
+     * @brief Returns a collector that gathers the k largest elements of a stream, merging per-thread results.
+     * @param k The number of elements to keep.
+     * @return A collector producing a TopK. Parallel streams fill one TopK per thread and merge them.
+     * @throws IllegalArgumentException if k is not positive.
+     */
+    public static <T extends Comparable<T>> Collector<T, ?, TopK<T>> collector(int k) {
+        if (k <= 0) {
+            throw new IllegalArgumentException("K must be positive");
+        }
+        return Collector.of(() -> new TopK<T>(k), TopK::offer, TopK::merge, Collector.Characteristics.UNORDERED,
+                Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    /**
+     * @brief Offers an element, keeping it if it is among the k largest so far.
+     * @param element The element to offer.
+     * @return true if the element was kept, false if it was rejected.
+     * @throws NullPointerException if the element is null.
+     */
+    public boolean offer(T element) {
+        if (element == null) {
+            throw new NullPointerException("Null elements are not allowed");
+        }
+        if (threshold != null) {
+            if (element.compareTo(threshold) <= 0) {
+                return false; // Rejected without touching the heap
+            }
+            heap.replaceTop(element);
+            threshold = heap.peek();
+            return true;
+        }
+        heap.insert(element);
+        if (heap.size() == k) {
+            threshold = heap.peek();
+        }
+        return true;
+    }
+
+    /**
+     * @brief Adds the elements kept by another collector to this one.
+     * @param other The collector to merge in. It is not changed.
+     * @return This collector.
+     * @throws IllegalArgumentException if other is this collector.
+     */
+    public TopK<T> merge(TopK<T> other) {
+        if (other == this) {
+            throw new IllegalArgumentException("Cannot merge a collector into itself");
+        }
+        for (Object element : other.heap.toArray()) {
+            offer((T) element);
+        }
+        return this;
+    }
+
+    /**
+     * @brief Returns the number of elements kept, at most k.
+     * @return The number of kept elements.
+     */
+    public int size() {
+        return heap.size();
+    }
+
+    /**
+     * @brief Checks if no element has been kept.
+     * @return true if nothing was offered, otherwise false.
+     */
+    public boolean isEmpty() {
+        return heap.isEmpty();
+    }
+
+    /**
+     * @brief Returns the smallest kept element, the one the next element has to beat once k are kept.
+     * @return The smallest kept element.
+     * @throws IllegalStateException if no element has been kept.
+     */
+    public T min() {
+        return heap.peek();
+    }
+
+    /**
+     * @brief Returns the kept elements from largest to smallest.
+     * @return A new list holding the kept elements.
+     */
+    public MyArrayList<T> toSortedList() {
+        Object[] kept = heap.toArray();
+        Arrays.sort(kept, Collections.reverseOrder());
+        MyArrayList<T> list = new MyArrayList<>();
+        list.addAll(kept);
+        return list;
+    }
+}
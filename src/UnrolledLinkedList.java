@@ -0,0 +1,462 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+
+/**
+ * @brief A doubly linked list whose nodes each hold a small array of elements.
+ * Compared with MyLinkedList, which allocates one node per element, the node
+ * and pointer overhead is shared by up to node_capacity elements and a traversal
+ * touches consecutive array slots instead of chasing a pointer per element.
+ * Indexed access skips whole nodes by their element counts, so it is O(n/B) for
+ * nodes of B elements. Each node keeps free room at both ends, which keeps
+ * addFirst/addLast/removeFirst/removeLast O(1). A full node is split in two on
+ * insert, and a node that becomes less than a quarter full is merged with its
+ * neighbour on remove.
+ */
+public class UnrolledLinkedList<T> implements MyList<T> {
+    private static final int node_capacity = 64;
+    private static final int merge_threshold = node_capacity / 4;
+
+    /**
+     * @brief A node holding elements items[start] to items[start + count - 1].
+     */
+    private static class Node<E> {
+        final Object[] items = new Object[node_capacity];
+        int start;
+        int count;
+        Node<E> next;
+        Node<E> prev;
+
+        Node(int start) {
+            this.start = start;
+        }
+    }
+
+    private Node<T> head;
+    private Node<T> tail;
+    private int size;
+    private int foundOffset; // Position inside the node returned by the last findNode call
+
+    /**
+     * @brief Constructs an empty list.
+     */
+    public UnrolledLinkedList() {
+        head = null;
+        tail = null;
+        size = 0;
+    }
+
+    /**
+     * @brief Finds the node holding an index, walking node counts from the nearer end.
+     * The position of the index inside the node is left in foundOffset.
+     * @param index The index to look up. Must be in bounds.
+     * @return The node holding the index.
+     */
+    private Node<T> findNode(int index) {
+        Node<T> current;
+        if (index < size / 2) {
+            current = head;
+            while (index >= current.count) {
+                index -= current.count;
+                current = current.next;
+            }
+        } else {
+            int remaining = size - 1 - index; // Distance from the end
+            current = tail;
+            while (remaining >= current.count) {
+                remaining -= current.count;
+                current = current.prev;
+            }
+            index = current.count - 1 - remaining;
+        }
+        foundOffset = index;
+        return current;
+    }
+
+    /**
+     * @brief Throws if the index is not in the list.
+     * @param index The index to check.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+    }
+
+    /**
+     * @brief Links a new node after the given node, or at the head if pred is null.
+     * @param pred The node to link after.
+     * @param node The node to link.
+     */
+    private void linkAfter(Node<T> pred, Node<T> node) {
+        Node<T> succ = pred == null ? head : pred.next;
+        node.prev = pred;
+        node.next = succ;
+        if (pred == null) {
+            head = node;
+        } else {
+            pred.next = node;
+        }
+        if (succ == null) {
+            tail = node;
+        } else {
+            succ.prev = node;
+        }
+    }
+
+    /**
+     * @brief Disconnects a node from the list.
+     * @param node The node to unlink.
+     */
+    private void unlink(Node<T> node) {
+        if (node.prev == null) {
+            head = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next == null) {
+            tail = node.prev;
+        } else {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * @brief Checks if the list is empty.
+     * @return true if the list has no elements, otherwise false.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @brief Adds an item to the end of the list.
+     * @param item The item to add.
+     */
+    public void add(T item) {
+        addLast(item);
+    }
+
+    /**
+     * @brief Inserts an item at the beginning of the list.
+     * @param item The item to insert.
+     */
+    public void addFirst(T item) {
+        if (head == null || head.start == 0) {
+            // New head nodes fill from the back so that further addFirst calls have room
+            linkAfter(null, new Node<>(node_capacity));
+        }
+        head.items[--head.start] = item;
+        head.count++;
+        size++;
+    }
+
+    /**
+     * @brief Inserts an item at the end of the list.
+     * @param item The item to insert.
+     */
+    public void addLast(T item) {
+        if (tail == null || tail.start + tail.count == node_capacity) {
+            linkAfter(tail, new Node<>(0));
+        }
+        tail.items[tail.start + tail.count] = item;
+        tail.count++;
+        size++;
+    }
+
+    /**
+     * @brief Inserts an item at a specified index, splitting the node if it is full.
+     * @param index The index to insert the item at.
+     * @param item The item to insert.
+     */
+    public void add(int index, T item) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index out of bounds");
+        }
+        if (index == size) {
+            addLast(item);
+            return;
+        }
+        if (index == 0) {
+            addFirst(item);
+            return;
+        }
+
+        Node<T> node = findNode(index);
+        int position = foundOffset;
+        if (node.count == node_capacity) {
+            // Move the upper half into a new node and insert into whichever half holds the position
+            Node<T> upper = new Node<>(0);
+            int half = node_capacity / 2;
+            System.arraycopy(node.items, node.start + half, upper.items, 0, node.count - half);
+            Arrays.fill(node.items, node.start + half, node.start + node.count, null);
+            upper.count = node.count - half;
+            node.count = half;
+            linkAfter(node, upper);
+            if (position > half) {
+                node = upper;
+                position -= half;
+            }
+        }
+        insertIntoNode(node, position, item);
+        size++;
+    }
+
+    /**
+     * @brief Inserts an item into a node that has at least one free slot.
+     * @param node The node to insert into.
+     * @param position The position inside the node.
+     * @param item The item to insert.
+     */
+    private void insertIntoNode(Node<T> node, int position, T item) {
+        Object[] items = node.items;
+        if (node.start + node.count < node_capacity) {
+            int at = node.start + position;
+            System.arraycopy(items, at, items, at + 1, node.count - position); // Shift the tail part right
+            items[at] = item;
+        } else {
+            System.arraycopy(items, node.start, items, node.start - 1, position); // Shift the front part left
+            node.start--;
+            items[node.start + position] = item;
+        }
+        node.count++;
+    }
+
+    /**
+     * @brief Sets the value of the item at a specific index.
+     * @param index The index to set the item at.
+     * @param item The new item.
+     */
+    public void set(int index, T item) {
+        checkIndex(index);
+        Node<T> node = findNode(index);
+        node.items[node.start + foundOffset] = item;
+    }
+
+    /**
+     * @brief Retrieves the item at a specific index.
+     * @param index The index to get the item from.
+     * @return The item at the specified index.
+     */
+    public T get(int index) {
+        checkIndex(index);
+        Node<T> node = findNode(index);
+        return (T) node.items[node.start + foundOffset];
+    }
+
+    /**
+     * @brief Gets the first item in the list.
+     * @return The first item.
+     */
+    public T getFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) head.items[head.start];
+    }
+
+    /**
+     * @brief Gets the last item in the list.
+     * @return The last item.
+     */
+    public T getLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        return (T) tail.items[tail.start + tail.count - 1];
+    }
+
+    /**
+     * @brief Removes an item from a specific index, merging the node with its neighbour if it gets too empty.
+     * @param index The index to remove the item from.
+     */
+    public void remove(int index) {
+        checkIndex(index);
+        Node<T> node = findNode(index);
+        int position = foundOffset;
+        Object[] items = node.items;
+        if (position < node.count / 2) {
+            System.arraycopy(items, node.start, items, node.start + 1, position); // Close the gap from the front
+            items[node.start] = null;
+            node.start++;
+        } else {
+            int at = node.start + position;
+            System.arraycopy(items, at + 1, items, at, node.count - position - 1); // Close the gap from the back
+            items[node.start + node.count - 1] = null;
+        }
+        node.count--;
+        size--;
+        rebalance(node);
+    }
+
+    /**
+     * @brief Removes the first item in the list.
+     */
+    public void removeFirst() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        head.items[head.start] = null;
+        head.start++;
+        head.count--;
+        size--;
+        rebalance(head);
+    }
+
+    /**
+     * @brief Removes the last item in the list.
+     */
+    public void removeLast() {
+        if (isEmpty()) {
+            throw new IllegalStateException("List is empty");
+        }
+        tail.items[tail.start + tail.count - 1] = null;
+        tail.count--;
+        size--;
+        rebalance(tail);
+    }
+
+    /**
+     * @brief Unlinks an empty node, or merges a sparse node with its next neighbour when both fit in one node.
+     * @param node The node that just lost an element.
+     */
+    private void rebalance(Node<T> node) {
+        if (node.count == 0) {
+            unlink(node);
+            return;
+        }
+        Node<T> next = node.next;
+        if (node.count < merge_threshold && next != null && node.count + next.count <= node_capacity) {
+            if (node.start + node.count + next.count > node_capacity) {
+                System.arraycopy(node.items, node.start, node.items, 0, node.count); // Make room at the back
+                Arrays.fill(node.items, node.count, node.start + node.count, null);
+                node.start = 0;
+            }
+            System.arraycopy(next.items, next.start, node.items, node.start + node.count, next.count);
+            node.count += next.count;
+            unlink(next);
+        }
+    }
+
+    /**
+     * @brief Sorts the list in natural order, rewriting the node arrays in place.
+     */
+    public void sort() {
+        Object[] array = toArray();
+        Arrays.sort(array);
+        int index = 0;
+        for (Node<T> node = head; node != null; node = node.next) {
+            System.arraycopy(array, index, node.items, node.start, node.count);
+            index += node.count;
+        }
+    }
+
+    /**
+     * @brief Finds the first position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int indexOf(Object object) {
+        int base = 0;
+        for (Node<T> node = head; node != null; node = node.next) {
+            Object[] items = node.items;
+            for (int i = 0; i < node.count; i++) {
+                if (object.equals(items[node.start + i])) {
+                    return base + i;
+                }
+            }
+            base += node.count;
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Finds the last position of an object.
+     * @param object The object to search for.
+     * @return The index of the object, or -1 if it is not in the list.
+     */
+    public int lastIndexOf(Object object) {
+        int base = size;
+        for (Node<T> node = tail; node != null; node = node.prev) {
+            base -= node.count;
+            Object[] items = node.items;
+            for (int i = node.count - 1; i >= 0; i--) {
+                if (object.equals(items[node.start + i])) {
+                    return base + i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @brief Checks if an object exists in the list.
+     * @param object The object to search for.
+     * @return true if the object is found, otherwise false.
+     */
+    public boolean exists(Object object) {
+        return indexOf(object) != -1;
+    }
+
+    /**
+     * @brief Converts the list to an array, copying one node at a time.
+     * @return An array containing all elements in the list.
+     */
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int index = 0;
+        for (Node<T> node = head; node != null; node = node.next) {
+            System.arraycopy(node.items, node.start, array, index, node.count);
+            index += node.count;
+        }
+        return array;
+    }
+
+    /**
+     * @brief Clears all elements from the list.
+     */
+    public void clear() {
+        head = null;
+        tail = null;
+        size = 0;
+    }
+
+    /**
+     * @brief Returns the current size of the list.
+     * @return The number of elements in the list.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @brief Returns an iterator that walks the node arrays in order.
+     * @return An iterator over the elements.
+     */
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private Node<T> node = head;
+            private int position = 0;
+
+            public boolean hasNext() {
+                return node != null;
+            }
+
+            public T next() {
+                if (node == null) {
+                    throw new NoSuchElementException();
+                }
+                T item = (T) node.items[node.start + position];
+                if (++position == node.count) {
+                    node = node.next;
+                    position = 0;
+                }
+                return item;
+            }
+        };
+    }
+}